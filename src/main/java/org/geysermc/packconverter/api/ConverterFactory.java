@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api;
+
+import org.geysermc.packconverter.api.converters.AbstractConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Creates the converters of one converter class, one for each of its data rows
+ *
+ * Converters are built through a constructor reference, so no reflection is needed
+ */
+public class ConverterFactory {
+
+    private final Supplier<List<Object[]>> defaultData;
+    private final Constructor constructor;
+
+    public ConverterFactory(Supplier<List<Object[]>> defaultData, Constructor constructor) {
+        this.defaultData = defaultData;
+        this.constructor = constructor;
+    }
+
+    public List<Object[]> getDefaultData() {
+        return defaultData.get();
+    }
+
+    /**
+     * Create a converter for a single data row
+     *
+     * @param packConverter Converter the pack belongs to
+     * @param storage Storage of the pack
+     * @param data Data row to convert
+     * @return New converter
+     */
+    public AbstractConverter create(PackConverter packConverter, PackFileSystem storage, Object[] data) {
+        return constructor.create(packConverter, storage, data);
+    }
+
+    /**
+     * Create a converter for every default data row
+     *
+     * @param packConverter Converter the pack belongs to
+     * @param storage Storage of the pack
+     * @return New converters in data order
+     */
+    public List<AbstractConverter> createAll(PackConverter packConverter, PackFileSystem storage) {
+        List<Object[]> rows = getDefaultData();
+        List<AbstractConverter> converters = new ArrayList<>(rows.size());
+
+        for (Object[] data : rows) {
+            converters.add(create(packConverter, storage, data));
+        }
+
+        return converters;
+    }
+
+    @FunctionalInterface
+    public interface Constructor {
+        AbstractConverter create(PackConverter packConverter, PackFileSystem storage, Object[] data);
+    }
+}
@@ -30,63 +30,68 @@ import org.geysermc.packconverter.api.converters.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class ConverterHandler {
-    public static final List<Class<? extends AbstractConverter>> converterList = new ArrayList<>();
+    public static final List<ConverterFactory> converterList = new ArrayList<>();
 
     public static boolean enableExperimental = false;
 
     static {
-        converterList.add(FixWrongRootFolderConverter.class);
-        converterList.add(MetadataConverter.class);
-        converterList.add(RenameConverter.class);
-        converterList.add(AtlasConverter.class);
-        converterList.add(BannerPatternConverter.class);
-        converterList.add(BedConverter.class);
-        converterList.add(ChestNormalConverter.class);
-        converterList.add(ChestLeftRightDoubleConverter.class);
-        converterList.add(ChestFrontConverter.class);
-        converterList.add(ChestSideConverter.class);
-        converterList.add(DrownedConverter.class);
-        converterList.add(DolphinConverter.class);
-        converterList.add(FireworksConverter.class);
-        converterList.add(FishHookConverter.class);
-        converterList.add(FoxConverter.class);
-        converterList.add(HorseConverter.class);
-        converterList.add(IconsConverter.class);
-        converterList.add(BannerPatternBlackConverter.class);
-        converterList.add(MapIconsConverter.class);
-        converterList.add(PistonArmConverter.class);
-        converterList.add(RedstoneDustConverter.class);
-        converterList.add(SheepConverter.class);
-        converterList.add(VillagerConverter.class);
-        converterList.add(TurtleConverter.class);
-        converterList.add(WeatherConverter.class);
-        converterList.add(OpaqueConverter.class);
-        converterList.add(WaterConverter.class);
-        converterList.add(BeeConverter.class);
-        converterList.add(TitleConverter.class);
-        converterList.add(DespriteConverter.class);
-        if (enableExperimental) { converterList.add(DespriteExperimentalConverter.class); } // Experimental
-        converterList.add(BarConverter.class);
-        if (enableExperimental) { converterList.add(NineSliceConverter.class); } // Experimental
-        //if (enableExperimental) { converterList.add(DialogConverter.class); } // Experimental TODO: Finish
-        converterList.add(OverlayToTranslateConverter.class);
-        converterList.add(ColorizeOverlayConverter.class);
-        converterList.add(PlaceholderConverter.class);
-        converterList.add(SideRotateConverter.class);
-        //converterList.add(ArrowConverter.class); // This is disabled as its broken and the intended output it just the original
-        converterList.add(Particles1_13Converter.class);
-        converterList.add(SpriteConverter.class);
-        converterList.add(DestroyStageConverter.class);
-        converterList.add(EnchantedItemGlintConverter.class);
-        converterList.add(BannerPatternPreviewMaxSizeConverter.class);
-        converterList.add(PngToTgaConverter.class);
-        converterList.add(CopyConverter.class);
+        register(FixWrongRootFolderConverter::getDefaultData, FixWrongRootFolderConverter::new);
+        register(MetadataConverter::getDefaultData, MetadataConverter::new);
+        register(RenameConverter::getPlanData, (packConverter, storage, data) -> new RenameConverter(packConverter, storage, RenameConverter.getPlan()));
+        register(AtlasConverter::getDefaultData, AtlasConverter::new);
+        register(BannerPatternConverter::getDefaultData, BannerPatternConverter::new);
+        register(BedConverter::getDefaultData, BedConverter::new);
+        register(ChestNormalConverter::getDefaultData, ChestNormalConverter::new);
+        register(ChestLeftRightDoubleConverter::getDefaultData, ChestLeftRightDoubleConverter::new);
+        register(ChestFrontConverter::getDefaultData, ChestFrontConverter::new);
+        register(ChestSideConverter::getDefaultData, ChestSideConverter::new);
+        register(DrownedConverter::getDefaultData, DrownedConverter::new);
+        register(DolphinConverter::getDefaultData, DolphinConverter::new);
+        register(FireworksConverter::getDefaultData, FireworksConverter::new);
+        register(FishHookConverter::getDefaultData, FishHookConverter::new);
+        register(FoxConverter::getDefaultData, FoxConverter::new);
+        register(HorseConverter::getDefaultData, HorseConverter::new);
+        register(IconsConverter::getDefaultData, IconsConverter::new);
+        register(BannerPatternBlackConverter::getDefaultData, BannerPatternBlackConverter::new);
+        register(MapIconsConverter::getDefaultData, MapIconsConverter::new);
+        register(PistonArmConverter::getDefaultData, PistonArmConverter::new);
+        register(RedstoneDustConverter::getDefaultData, RedstoneDustConverter::new);
+        register(SheepConverter::getDefaultData, SheepConverter::new);
+        register(VillagerConverter::getDefaultData, VillagerConverter::new);
+        register(TurtleConverter::getDefaultData, TurtleConverter::new);
+        register(WeatherConverter::getDefaultData, WeatherConverter::new);
+        register(OpaqueConverter::getDefaultData, OpaqueConverter::new);
+        register(WaterConverter::getDefaultData, WaterConverter::new);
+        register(BeeConverter::getDefaultData, BeeConverter::new);
+        register(TitleConverter::getDefaultData, TitleConverter::new);
+        register(DespriteConverter::getDefaultData, DespriteConverter::new);
+        if (enableExperimental) { register(DespriteExperimentalConverter::getDefaultData, DespriteExperimentalConverter::new); } // Experimental
+        register(BarConverter::getDefaultData, BarConverter::new);
+        if (enableExperimental) { register(NineSliceConverter::getDefaultData, NineSliceConverter::new); } // Experimental
+        //if (enableExperimental) { register(DialogConverter::getDefaultData, DialogConverter::new); } // Experimental TODO: Finish
+        register(OverlayToTranslateConverter::getDefaultData, OverlayToTranslateConverter::new);
+        register(ColorizeOverlayConverter::getDefaultData, ColorizeOverlayConverter::new);
+        register(PlaceholderConverter::getDefaultData, PlaceholderConverter::new);
+        register(SideRotateConverter::getDefaultData, SideRotateConverter::new);
+        //register(ArrowConverter::getDefaultData, ArrowConverter::new); // This is disabled as its broken and the intended output it just the original
+        register(Particles1_13Converter::getDefaultData, Particles1_13Converter::new);
+        register(SpriteConverter::getDefaultData, SpriteConverter::new);
+        register(DestroyStageConverter::getDefaultData, DestroyStageConverter::new);
+        register(EnchantedItemGlintConverter::getDefaultData, EnchantedItemGlintConverter::new);
+        register(BannerPatternPreviewMaxSizeConverter::getDefaultData, BannerPatternPreviewMaxSizeConverter::new);
+        register(PngToTgaConverter::getDefaultData, PngToTgaConverter::new);
+        register(CopyConverter::getDefaultData, CopyConverter::new);
 
         // Custom, not part of the original lib
-        converterList.add(CustomModelDataConverter.class);
+        register(CustomModelDataConverter::getDefaultData, CustomModelDataConverter::new);
 
-        converterList.add(DeleteConverter.class);
+        register(DeleteConverter::getDefaultData, DeleteConverter::new);
+    }
+
+    private static void register(Supplier<List<Object[]>> defaultData, ConverterFactory.Constructor constructor) {
+        converterList.add(new ConverterFactory(defaultData, constructor));
     }
 }
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api;
+
+import org.geysermc.packconverter.api.converters.AbstractConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs converters in parallel while keeping the order between converters that touch the same paths
+ *
+ * Each converter waits for every earlier converter whose declared paths overlap with its own,
+ * so the result is the same as running them one after another in list order
+ * A converter that fails is logged and every converter waiting on it is skipped, so none of them work on a half converted pack
+ */
+public class ConverterScheduler {
+
+    private final PackConverter packConverter;
+    private final ForkJoinPool pool;
+
+    public ConverterScheduler(PackConverter packConverter) {
+        this(packConverter, ForkJoinPool.commonPool());
+    }
+
+    public ConverterScheduler(PackConverter packConverter, ForkJoinPool pool) {
+        this.packConverter = packConverter;
+        this.pool = pool;
+    }
+
+    /**
+     * Run the converters and collect the additional converters they return
+     *
+     * @param converters Converters to run, in the order they would run sequentially
+     * @return Additional converters returned by the converters that succeeded, in the same order
+     * @throws InterruptedException If interrupted while waiting for the converters
+     */
+    public List<AbstractConverter> run(List<AbstractConverter> converters) throws InterruptedException {
+        List<Node> nodes = buildGraph(converters);
+        CountDownLatch done = new CountDownLatch(nodes.size());
+
+        // Find every root before submitting any, a finished root can already release its dependents
+        List<Node> roots = new ArrayList<>();
+        for (Node node : nodes) {
+            if (node.pending.get() == 0) {
+                roots.add(node);
+            }
+        }
+
+        for (Node root : roots) {
+            submit(root, done);
+        }
+
+        done.await();
+
+        List<AbstractConverter> additionalConverters = new ArrayList<>();
+        for (Node node : nodes) {
+            additionalConverters.addAll(node.additionalConverters);
+        }
+
+        return additionalConverters;
+    }
+
+    private void submit(Node node, CountDownLatch done) {
+        pool.execute(() -> {
+            try {
+                if (node.failed) {
+                    packConverter.log(String.format("Skip %s after an earlier converter failed", node.getName()));
+                } else {
+                    List<AbstractConverter> additionalConverters = node.converter.convert();
+                    if (additionalConverters != null) {
+                        node.additionalConverters = additionalConverters;
+                    }
+                }
+            } catch (Throwable t) {
+                node.failed = true;
+                packConverter.log(String.format("Failed to run %s: %s", node.getName(), t));
+            } finally {
+                for (Node dependent : node.dependents) {
+                    // Set before the count goes down, so the dependent sees it when it is submitted
+                    if (node.failed) {
+                        dependent.failed = true;
+                    }
+
+                    if (dependent.pending.decrementAndGet() == 0) {
+                        submit(dependent, done);
+                    }
+                }
+
+                done.countDown();
+            }
+        });
+    }
+
+    /**
+     * Link every converter to the earlier converters it conflicts with
+     * A converter that can touch the whole pack acts as a barrier between the ones before and after it
+     *
+     * @param converters Converters in sequential order
+     * @return Graph nodes in the same order
+     */
+    private static List<Node> buildGraph(List<AbstractConverter> converters) {
+        List<Node> nodes = new ArrayList<>(converters.size());
+        int lastBarrier = -1;
+
+        for (AbstractConverter converter : converters) {
+            Node node = new Node(converter);
+            int index = nodes.size();
+
+            if (node.isBarrier()) {
+                for (int i = Math.max(lastBarrier, 0); i < index; i++) {
+                    nodes.get(i).addDependent(node);
+                }
+
+                lastBarrier = index;
+            } else {
+                if (lastBarrier != -1) {
+                    nodes.get(lastBarrier).addDependent(node);
+                }
+
+                for (int i = lastBarrier + 1; i < index; i++) {
+                    Node other = nodes.get(i);
+                    if (other.conflicts(node)) {
+                        other.addDependent(node);
+                    }
+                }
+            }
+
+            nodes.add(node);
+        }
+
+        return nodes;
+    }
+
+    private static List<String> normalize(List<String> paths) {
+        if (paths == null) {
+            return null;
+        }
+
+        List<String> normalized = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            normalized.add(PackFileSystem.normalize(path));
+        }
+
+        return normalized;
+    }
+
+    private static boolean overlaps(List<String> first, List<String> second) {
+        for (String a : first) {
+            for (String b : second) {
+                if (a.startsWith(b) || b.startsWith(a)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static class Node {
+        private final AbstractConverter converter;
+        private final List<String> reads;
+        private final List<String> writes;
+        private final List<Node> dependents = new ArrayList<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private List<AbstractConverter> additionalConverters = Collections.emptyList();
+        private volatile boolean failed;
+
+        private Node(AbstractConverter converter) {
+            this.converter = converter;
+            this.reads = normalize(converter.getReadPaths());
+            this.writes = normalize(converter.getWritePaths());
+        }
+
+        private String getName() {
+            String name = converter.getClass().getSimpleName();
+            return writes == null ? name : name + " " + writes;
+        }
+
+        private boolean isBarrier() {
+            return reads == null || writes == null;
+        }
+
+        private boolean conflicts(Node other) {
+            return overlaps(writes, other.writes) || overlaps(writes, other.reads) || overlaps(reads, other.writes);
+        }
+
+        private void addDependent(Node node) {
+            dependents.add(node);
+            node.pending.incrementAndGet();
+        }
+    }
+}
@@ -29,20 +29,28 @@ package org.geysermc.packconverter.api;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import lombok.Getter;
 import lombok.Setter;
+import org.geysermc.packconverter.api.filesystem.DiskPackFileSystem;
+import org.geysermc.packconverter.api.filesystem.ExtractionStats;
+import org.geysermc.packconverter.api.filesystem.IndexedPackFileSystem;
+import org.geysermc.packconverter.api.filesystem.MemoryPackFileSystem;
+import org.geysermc.packconverter.api.filesystem.PackExtractor;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
+import org.geysermc.packconverter.api.filesystem.PackIndex;
 import org.geysermc.packconverter.api.utils.CustomModelData;
+import org.geysermc.packconverter.api.utils.ImageCache;
 import org.geysermc.packconverter.api.utils.OnLogListener;
+import org.geysermc.packconverter.api.utils.PngPreset;
+import org.geysermc.packconverter.api.utils.TransformMemo;
 import org.geysermc.packconverter.api.utils.ZipUtils;
 import org.geysermc.packconverter.api.converters.AbstractConverter;
+import org.geysermc.packconverter.api.converters.FixWrongRootFolderConverter;
+import org.geysermc.packconverter.api.converters.RenameConverter;
 
-import javax.imageio.ImageIO;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -54,80 +62,215 @@ public class PackConverter {
     @Getter
     private final Path tmpDir;
 
+    @Getter
+    private final PackFileSystem storage;
+
+    private final IndexedPackFileSystem indexedStorage;
+
+    @Getter
+    private final PackIndex index;
+
+    @Getter
+    private final ImageCache imageCache;
+
+    /**
+     * What the extraction of the input zip did
+     */
+    @Getter
+    private final ExtractionStats extractionStats;
+
     @Getter
     private final Map<String, Int2ObjectMap<CustomModelData>> customModelData = new HashMap<>();
 
     @Setter
     private OnLogListener onLogListener;
 
+    private final List<AbstractConverter> converters = new ArrayList<>();
+
+    /**
+     * Entries that are copied from the input zip without being converted, by their output path
+     */
+    private final Map<String, ZipEntry> passthroughEntries = new LinkedHashMap<>();
+    private ZipFile inputZip;
+
     public PackConverter(Path input, Path output) throws IOException {
-        this.output = output;
+        this(input, output, ConversionMode.DISK);
+    }
 
-        // Load any image plugins
-        ImageIO.scanForPlugins();
+    /**
+     * Create a converter for the given pack
+     *
+     * @param input Java pack zip to convert
+     * @param output Bedrock pack to write
+     * @param inMemory If true the pack is kept in memory instead of being extracted to a temporary folder
+     * @throws IOException If the pack can't be read
+     */
+    public PackConverter(Path input, Path output, boolean inMemory) throws IOException {
+        this(input, output, inMemory ? ConversionMode.MEMORY : ConversionMode.DISK);
+    }
+
+    /**
+     * Create a converter for the given pack
+     *
+     * @param input Java pack zip to convert
+     * @param output Bedrock pack to write
+     * @param mode Where the pack is kept while it is converted
+     * @throws IOException If the pack can't be read
+     */
+    public PackConverter(Path input, Path output, ConversionMode mode) throws IOException {
+        this.output = output;
 
-        // Extract the zip to a temp location
-        // This is quite slow, maybe try and find a faster method?
         tmpDir = input.toAbsolutePath().getParent().resolve(input.getFileName() + "_mcpack/");
-        tmpDir.toFile().mkdir();
-        ZipFile zipFile = new ZipFile(input.toFile());
         Path resourcesDir = tmpDir.resolve("resources");
 
-        ZipEntry entry;
-        final Enumeration<? extends ZipEntry> entries = zipFile.entries();
-        while (entries.hasMoreElements()) {
-            entry = entries.nextElement();
+        if (mode == ConversionMode.DISK) {
+            indexedStorage = new IndexedPackFileSystem(new DiskPackFileSystem(resourcesDir));
+        } else {
+            indexedStorage = new IndexedPackFileSystem(new MemoryPackFileSystem(resourcesDir.getFileName().toString()));
+        }
 
-            if (!entry.isDirectory()) {
-                File newFile = resourcesDir.resolve(entry.getName()).toFile();
-                newFile.getParentFile().mkdirs();
+        storage = indexedStorage;
+        index = indexedStorage.getIndex();
 
-                InputStream fileStream = zipFile.getInputStream(entry);
-                FileOutputStream outStream = new FileOutputStream(newFile);
+        imageCache = new ImageCache(indexedStorage);
+        indexedStorage.addChangeListener(imageCache::invalidate);
 
-                byte[] buf = new byte[fileStream.available()];
-                int length;
-                while ((length = fileStream.read(buf)) != -1) {
-                    outStream.write(buf, 0, length);
-                }
+        for (ConverterFactory factory : ConverterHandler.converterList) {
+            converters.addAll(factory.createAll(this, storage));
+        }
+
+        // Extract the zip into the storage, renaming the entries to their Bedrock paths
+        ZipFile zipFile = new ZipFile(input.toFile());
+        ExtractionStats stats = null;
+        try {
+            Predicate<String> filter = null;
+            if (mode == ConversionMode.STREAMING) {
+                filter = streamingFilter(zipFile);
+            }
 
-                outStream.flush();
-                outStream.close();
+            stats = new PackExtractor().extract(zipFile, storage, RenameConverter.getPlan(), filter, passthroughEntries);
+        } finally {
+            // Nobody can clean up after a failed constructor, so the zip is only kept open for a successful extraction
+            if (stats == null || passthroughEntries.isEmpty()) {
+                zipFile.close();
+            } else {
+                inputZip = zipFile;
             }
         }
+
+        extractionStats = stats;
     }
 
     /**
-     * Convert all resources in the pack using the converters
+     * Get how many entries are copied from the input zip to the output without being converted
+     *
+     * @return Amount of streamed entries
      */
-    public void convert() {
-        List<AbstractConverter> additionalConverters = new ArrayList<>();
-        Path resources = tmpDir.resolve("resources");
+    public int getPassthroughCount() {
+        return passthroughEntries.size();
+    }
 
-        for (Class<? extends AbstractConverter> converterClass : ConverterHandler.converterList) {
-            try {
-                List<Object[]> defaultData = (List<Object[]>) converterClass.getMethod("getDefaultData").invoke(null);
+    /**
+     * Build the filter for the entries that have to be kept in memory when streaming,
+     * these are all the entries a converter reads from or writes to
+     *
+     * @param zipFile Pack zip
+     * @return Filter for the renamed entry paths, or null if every entry has to be kept
+     */
+    private Predicate<String> streamingFilter(ZipFile zipFile) {
+        // The root folder has to be fixed before the entries can be matched
+        if (zipFile.getEntry("pack.mcmeta") == null) {
+            return null;
+        }
 
-                AbstractConverter converter;
-                for (Object[] data : defaultData) {
-                    converter = converterClass.getDeclaredConstructor(PackConverter.class, Path.class, Object[].class).newInstance(this, resources, data);
+        Set<String> paths = new HashSet<>();
+        for (AbstractConverter converter : converters) {
+            // Both are already applied to the entry names during extraction
+            if (converter instanceof FixWrongRootFolderConverter || converter instanceof RenameConverter) {
+                continue;
+            }
 
-                    additionalConverters.addAll(converter.convert());
-                }
-            } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) { }
+            List<String> readPaths = converter.getReadPaths();
+            if (readPaths == null) {
+                return null;
+            }
+
+            // Converters that can write anywhere only add files, which replace the streamed ones in the output
+            List<String> writePaths = converter.getWritePaths();
+            for (String path : writePaths == null ? readPaths : concat(readPaths, writePaths)) {
+                paths.add(PackFileSystem.normalize(path));
+            }
         }
 
-        for (AbstractConverter converter : additionalConverters) {
-            converter.convert();
+        return name -> {
+            for (int i = 1; i <= name.length(); i++) {
+                if (paths.contains(name.substring(0, i))) {
+                    return true;
+                }
+            }
+
+            return false;
+        };
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> result = new ArrayList<>(first);
+        result.addAll(second);
+        return result;
+    }
+
+    /**
+     * Choose how hard written PNGs are compressed, a fast preset suits previews and the smallest suits released packs
+     *
+     * @param preset Speed and size trade off
+     */
+    public void setPngPreset(PngPreset preset) {
+        imageCache.setPngPreset(preset);
+    }
+
+    /**
+     * Choose where the outputs of image transforms are remembered, a memo with a directory reuses them between conversions
+     * No memo is used unless one is set here
+     * Stored outputs are only reused by the same build of the converter, any other build starts over
+     *
+     * @param memo Memo to use, or null to always run the transforms
+     */
+    public void setTransformMemo(TransformMemo memo) {
+        imageCache.setTransformMemo(memo);
+    }
+
+    /**
+     * Convert all resources in the pack using the converters
+     * Converters that don't touch the same files are run in parallel
+     */
+    public void convert() {
+        try {
+            ConverterScheduler scheduler = new ConverterScheduler(this);
+            List<AbstractConverter> additionalConverters = scheduler.run(converters);
+            scheduler.run(additionalConverters);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
     /**
-     * Convert the temporary folder into the output zip
+     * Convert the pack storage into the output zip
      */
     public void pack() {
-        ZipUtils zipUtils = new ZipUtils(this, tmpDir.resolve("resources").toFile());
+        // Encode all the images that are still only kept in memory
+        try {
+            indexedStorage.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        imageCache.clear();
+
+        ZipUtils zipUtils = new ZipUtils(this, storage);
         zipUtils.generateFileList();
+        if (inputZip != null) {
+            zipUtils.addPassthrough(inputZip, passthroughEntries);
+        }
         zipUtils.zipIt(output.toString());
     }
 
@@ -136,6 +279,12 @@ public class PackConverter {
      * Silently fails.
      */
     public void cleanup() {
+        try {
+            if (inputZip != null) {
+                inputZip.close();
+            }
+        } catch (IOException ignored) { }
+
         try {
             Files.delete(tmpDir);
         } catch (IOException ignored) { }
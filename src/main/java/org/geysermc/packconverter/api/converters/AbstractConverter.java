@@ -28,15 +28,20 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.AllArgsConstructor;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
+import org.geysermc.packconverter.api.utils.TiledImage;
 
-import java.nio.file.Path;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 @AllArgsConstructor
 public abstract class AbstractConverter {
     PackConverter packConverter;
-    Path storage;
+    PackFileSystem storage;
     Object[] data;
 
     public static List<Object[]> getDefaultData() {
@@ -44,4 +49,97 @@ public abstract class AbstractConverter {
     };
 
     public abstract List<AbstractConverter> convert();
+
+    /**
+     * Read an image from the pack through the shared image cache
+     *
+     * @param path Path of the image
+     * @return Decoded image that can be freely modified, or null if it can't be decoded
+     * @throws IOException If the file can't be read
+     */
+    BufferedImage readImage(String path) throws IOException {
+        return packConverter.getImageCache().read(path);
+    }
+
+    /**
+     * Write an image to the pack through the shared image cache,
+     * it is only encoded once the file is needed or the pack is written
+     *
+     * @param image Image to write
+     * @param format Format to encode to
+     * @param path Path to write to
+     */
+    void writeImage(BufferedImage image, String format, String path) {
+        packConverter.getImageCache().write(image, format, path);
+    }
+
+    /**
+     * Write an image that is produced strip by strip, large images are encoded without ever being drawn whole
+     *
+     * @param image Image to write
+     * @param format Format to encode to
+     * @param path Path to write to
+     * @throws IOException If the image can't be written
+     */
+    void writeImage(TiledImage image, String format, String path) throws IOException {
+        packConverter.getImageCache().write(image, format, path);
+    }
+
+    /**
+     * Transform an image of the pack into another file through the shared image cache
+     * Transforms return the image they were given when they change nothing, the file is then kept as is.
+     * The converter class and the parameters are part of the memo key, so they have to cover everything besides the image that decides the output
+     *
+     * @param from Path of the image
+     * @param to Path to write to, can be the same path
+     * @param format Format to encode to
+     * @param transform Transform to run on the image
+     * @param parameters Values of the converter data the transform depends on, without the paths
+     * @throws IOException If the image can't be read or copied
+     */
+    void transformImage(String from, String to, String format, UnaryOperator<BufferedImage> transform, Object... parameters) throws IOException {
+        String operation = getClass().getName() + Arrays.deepToString(parameters);
+        packConverter.getImageCache().transform(from, to, format, operation, transform);
+    }
+
+    /**
+     * Get the paths this converter reads from, used to decide which converters can run at the same time
+     * Paths are matched as prefixes, so a directory or the start of a file name covers everything below it
+     *
+     * @return Paths read by the converter, or null if it can read anything in the pack
+     */
+    public List<String> getReadPaths() {
+        return getDataPaths();
+    }
+
+    /**
+     * Get the paths this converter writes, moves or deletes
+     *
+     * @see #getReadPaths()
+     * @return Paths written by the converter, or null if it can write anything in the pack
+     */
+    public List<String> getWritePaths() {
+        return getDataPaths();
+    }
+
+    /**
+     * Collect every string in the data, including nested arrays
+     *
+     * @return All the paths mentioned in the data
+     */
+    List<String> getDataPaths() {
+        List<String> paths = new ArrayList<>();
+        collectPaths(data, paths);
+        return paths;
+    }
+
+    private static void collectPaths(Object[] values, List<String> paths) {
+        for (Object value : values) {
+            if (value instanceof String) {
+                paths.add((String) value);
+            } else if (value instanceof Object[]) {
+                collectPaths((Object[]) value, paths);
+            }
+        }
+    }
 }
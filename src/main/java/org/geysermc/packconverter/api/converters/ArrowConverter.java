@@ -28,14 +28,12 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,7 +46,7 @@ public class ArrowConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/projectiles/arrow.png", "textures/entity/arrows.png"});
     }
 
-    public ArrowConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public ArrowConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -58,15 +56,13 @@ public class ArrowConverter extends AbstractConverter {
             String from = (String) this.data[0];
             String to = (String) this.data[1];
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Convert arrow %s", to));
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
+            BufferedImage fromImage = readImage(from);
 
             int factor = fromImage.getWidth() / 32;
 
@@ -93,7 +89,7 @@ public class ArrowConverter extends AbstractConverter {
 
             g.drawImage(fromImage, 0, 10 * factor, null);
 
-            ImageUtils.write(newArrowImage, "png", storage.resolve(to).toFile());
+            writeImage(newArrowImage, "png", to);
         } catch (IOException e) { }
 
         return new ArrayList<>();
@@ -28,13 +28,10 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
-import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,7 +45,7 @@ public class AtlasConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/items/compass_", 31, "textures/items/compass_atlas.png"});
     }
 
-    public AtlasConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public AtlasConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -65,13 +62,12 @@ public class AtlasConverter extends AbstractConverter {
 
             for (int i = 0; i <= count; i++) {
                 String step = base + String.format("%1$2s", i).replace(" ", "0") + ".png";
-                File stepFile = storage.resolve(step).toFile();
                 
-                if (!stepFile.exists()) {
+                if (!storage.exists(step)) {
                     continue;
                 }
 
-                BufferedImage stepImage = ImageIO.read(stepFile);
+                BufferedImage stepImage = readImage(step);
                 
                 if (atlasImage == null) {
                     packConverter.log(String.format("Create atlas %s", to));
@@ -85,7 +81,7 @@ public class AtlasConverter extends AbstractConverter {
             }
 
             if (atlasImage != null) {
-                ImageUtils.write(atlasImage, "png", storage.resolve(to).toFile());
+                writeImage(atlasImage, "png", to);
             }
         } catch (IOException e) { }
 
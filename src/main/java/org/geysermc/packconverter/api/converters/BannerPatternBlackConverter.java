@@ -28,14 +28,11 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
-import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -86,7 +83,7 @@ public class BannerPatternBlackConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/banner/triangles_top.png"});
     }
 
-    public BannerPatternBlackConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public BannerPatternBlackConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -95,14 +92,13 @@ public class BannerPatternBlackConverter extends AbstractConverter {
         try {
             String from = (String) this.data[0];
 
-            File patternFile = storage.resolve(from).toFile();
-            if (!patternFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Fix banner pattern black %s", from));
 
-            BufferedImage patternImage = ImageIO.read(patternFile);
+            BufferedImage patternImage = readImage(from);
 
             for (int x = 0; x < patternImage.getWidth(); x++) {
                 for (int y = 0; y < patternImage.getHeight(); y++) {
@@ -113,7 +109,7 @@ public class BannerPatternBlackConverter extends AbstractConverter {
                 }
             }
 
-            ImageUtils.write(patternImage, "png", patternFile);
+            writeImage(patternImage, "png", from);
         } catch (IOException e) { }
 
         return new ArrayList<>();
@@ -28,14 +28,12 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -59,7 +57,7 @@ public class BannerPatternConverter extends AbstractConverter {
             }, "textures/entity/banner/banner_pattern_illager.png"});
     }
 
-    public BannerPatternConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public BannerPatternConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -77,17 +75,16 @@ public class BannerPatternConverter extends AbstractConverter {
                 String path = (String) patternArr[0];
                 Color color = (Color) patternArr[1];
 
-                File patternFile = storage.resolve(path).toFile();
-                if (!patternFile.exists()) {
+                if (!storage.exists(path)) {
                     continue;
                 }
 
-                BufferedImage patternImage = ImageIO.read(patternFile);
+                BufferedImage patternImage = readImage(path);
                 
                 if (bannerImage == null) {
                     packConverter.log(String.format("Convert pattern banner %s", to));
 
-                    bannerImage = ImageIO.read(storage.resolve(base).toFile());
+                    bannerImage = readImage(base);
 
                     int factor = bannerImage.getWidth() / 64;
 
@@ -107,7 +104,7 @@ public class BannerPatternConverter extends AbstractConverter {
             }
 
             if (bannerImage != null) {
-                ImageUtils.write(bannerImage, "png", storage.resolve(to).toFile());
+                writeImage(bannerImage, "png", to);
             }
         } catch (IOException e) { }
 
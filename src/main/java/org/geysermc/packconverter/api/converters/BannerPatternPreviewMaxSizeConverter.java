@@ -28,14 +28,11 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -87,7 +84,7 @@ public class BannerPatternPreviewMaxSizeConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/banner/triangles_top.png", 64});
     }
 
-    public BannerPatternPreviewMaxSizeConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public BannerPatternPreviewMaxSizeConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -97,18 +94,13 @@ public class BannerPatternPreviewMaxSizeConverter extends AbstractConverter {
             String from = (String) this.data[0];
             Integer max_width = (Integer) this.data[1];
 
-            File patternFile = storage.resolve(from).toFile();
-            if (!patternFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Fix banner pattern preview max size %s", from));
 
-            BufferedImage patternImage = ImageIO.read(patternFile);
-
-            patternImage = ImageUtils.ensureMaxWidth(patternImage, max_width);
-
-            ImageUtils.write(patternImage, "png", patternFile);
+            transformImage(from, from, "png", patternImage -> ImageUtils.ensureMaxWidth(patternImage, max_width), max_width);
         } catch (IOException e) { }
 
         return new ArrayList<>();
@@ -31,14 +31,13 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.utils.TiledImage;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -79,7 +78,7 @@ public class BarConverter extends AbstractConverter {
         });
     }
 
-    public BarConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public BarConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -91,12 +90,11 @@ public class BarConverter extends AbstractConverter {
             Object[] bars = (Object[]) this.data[2];
             String[] nubs = (String[]) this.data[3];
 
-            File fromFile = storage.resolve(from).toFile();
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
             
-            BufferedImage fromImage = ImageIO.read(fromFile);
+            BufferedImage fromImage = readImage(from);
             fromImage = ImageUtils.ensureMinWidth(fromImage, factorDetect);
 
             int factor = (fromImage.getWidth() / factorDetect);
@@ -110,7 +108,7 @@ public class BarConverter extends AbstractConverter {
                 int y = (int) barArr[0];
                 Object[] tos = (Object[]) barArr[1];
 
-                BufferedImage toImage = ImageUtils.crop(fromImage, 0, (y * factor), (182 * factor), (5 * factor));
+                TiledImage toImage = TiledImage.of(fromImage).crop(0, (y * factor), (182 * factor), (5 * factor));
 
                 for (Object to : tos) {
                     Object[] toArr = (Object[]) to;
@@ -119,9 +117,9 @@ public class BarConverter extends AbstractConverter {
 
                     packConverter.log(String.format("Convert bar %s", toPath));
 
-                    ImageUtils.write(ImageUtils.colorize(toImage, color), "png", storage.resolve(toPath + ".png").toFile());
+                    writeImage(toImage.colorize(color), "png", toPath + ".png");
 
-                    mapper.writeValue(storage.resolve(toPath + ".json").toFile(), metadata);
+                    storage.write(toPath + ".json", mapper.writeValueAsBytes(metadata));
                 }
             }
             
@@ -129,7 +127,7 @@ public class BarConverter extends AbstractConverter {
             for (String nub : nubs) {
                 packConverter.log(String.format("Convert bar %s", nub));
 
-                ImageUtils.write(transparentImage, "png", storage.resolve(nub).toFile());
+                writeImage(transparentImage, "png", nub);
             }
             
         } catch (IOException e) { e.printStackTrace(); }
@@ -28,14 +28,13 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.utils.RasterTransform;
+import org.geysermc.packconverter.api.utils.TextureLayout;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -63,7 +62,41 @@ public class BedConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/bed/yellow.png"});
     }
 
-    public BedConverter(PackConverter packConverter, Path storage, Object[] data) {
+    private static final TextureLayout LAYOUT = new TextureLayout()
+            // Top part
+            .copy(0, 0, 44, 22, 0, 0)
+
+            // Bottom part
+            .copy(0, 28, 44, 16, 0, 22)
+
+            // Bottom side
+            .copy(22, 22, 16, 6, 22, 0);
+
+    static {
+        // Feeds
+        List<int[]> feedsList = new ArrayList<>();
+        feedsList.add(new int[] {50, 0, 0, 44, 0});
+        feedsList.add(new int[] {50, 6, 0, 38, 90});
+        feedsList.add(new int[] {50, 12, 12, 44, -90});
+        feedsList.add(new int[] {50, 18, 12, 38, 180});
+
+        for (int[] values : feedsList) {
+            int from_x = values[0];
+            int from_y = values[1];
+            int to_x = values[2];
+            int to_y = values[3];
+            int rotate_bottom = values[4];
+
+            LAYOUT.copy((from_x + 3), from_y, 3, 3, (to_x + 3), (to_y + 3))
+                    .copy((from_x + 6), from_y, 3, 3, (to_x + 9), (to_y + 3), RasterTransform.rotation(rotate_bottom))
+                    .copy(from_x, (from_y + 3), 3, 3, to_x, (to_y + 3), RasterTransform.ROTATE_270)
+                    .copy((from_x + 3), (from_y + 3), 3, 3, (to_x + 6), to_y, RasterTransform.ROTATE_180)
+                    .copy((from_x + 6), (from_y + 3), 3, 3, (to_x + 6), (to_y + 3), RasterTransform.ROTATE_90)
+                    .copy((from_x + 9), (from_y + 3), 3, 3, (to_x + 3), to_y, RasterTransform.ROTATE_180);
+        }
+    }
+
+    public BedConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -72,55 +105,19 @@ public class BedConverter extends AbstractConverter {
         try {
             String bed = (String) this.data[0];
 
-            File bedFile = storage.resolve(bed).toFile();
-
-            if (!bedFile.exists()) {
+            if (!storage.exists(bed)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Convert bed %s", bed));
 
-            BufferedImage bedImage = ImageIO.read(bedFile);
+            BufferedImage bedImage = readImage(bed);
 
             bedImage = ImageUtils.ensureMinWidth(bedImage, 64);
 
             int factor = bedImage.getWidth() / 64;
 
-            BufferedImage newBedImage = new BufferedImage(bedImage.getWidth(), bedImage.getHeight(), BufferedImage.TYPE_INT_ARGB);
-            Graphics g = newBedImage.getGraphics();
-
-            // Top part
-            g.drawImage(ImageUtils.crop(bedImage, 0, 0, (44 * factor), (22 * factor)), 0, 0, null);
-
-            // Bottom part
-            g.drawImage(ImageUtils.crop(bedImage, 0, (28 * factor), (44 * factor), (16 * factor)), 0, (22 * factor), null);
-
-            // Bottom side
-            g.drawImage(ImageUtils.crop(bedImage, (22 * factor), (22 * factor), (16 * factor), (6 * factor)), (22 * factor), 0, null);
-
-            // Feeds
-            List<int[]> feedsList = new ArrayList<>();
-            feedsList.add(new int[] {50, 0, 0, 44, 0});
-            feedsList.add(new int[] {50, 6, 0, 38, 90});
-            feedsList.add(new int[] {50, 12, 12, 44, -90});
-            feedsList.add(new int[] {50, 18, 12, 38, 180});
-
-            for (int[] values : feedsList) {
-                int from_x = values[0];
-                int from_y = values[1];
-                int to_x = values[2];
-                int to_y = values[3];
-                int rotate_bottom = values[4];
-
-                g.drawImage(ImageUtils.crop(bedImage, ((from_x + 3) * factor), (from_y * factor), (3 * factor), (3 * factor)), ((to_x + 3) * factor), ((to_y + 3) * factor), null);
-                g.drawImage(ImageUtils.rotate(ImageUtils.crop(bedImage, ((from_x + 6) * factor), (from_y * factor), (3 * factor), (3 * factor)), rotate_bottom), ((to_x + 9) * factor), ((to_y + 3) * factor), null);
-                g.drawImage(ImageUtils.rotate(ImageUtils.crop(bedImage, (from_x * factor), ((from_y + 3) * factor), (3 * factor), (3 * factor)), -90), (to_x * factor), ((to_y + 3) * factor), null);
-                g.drawImage(ImageUtils.rotate(ImageUtils.crop(bedImage, ((from_x + 3) * factor), ((from_y + 3) * factor), (3 * factor), (3 * factor)), 180), ((to_x + 6) * factor), (to_y * factor), null);
-                g.drawImage(ImageUtils.rotate(ImageUtils.crop(bedImage, ((from_x + 6) * factor), ((from_y + 3) * factor), (3 * factor), (3 * factor)), 90), ((to_x + 6) * factor), ((to_y + 3) * factor), null);
-                g.drawImage(ImageUtils.rotate(ImageUtils.crop(bedImage, ((from_x + 9) * factor), ((from_y + 3) * factor), (3 * factor), (3 * factor)), 180), ((to_x + 3) * factor), (to_y * factor), null);
-            }
-
-            ImageUtils.write(newBedImage, "png", bedFile);
+            writeImage(LAYOUT.tile(bedImage.getWidth(), bedImage.getHeight(), factor, bedImage), "png", bed);
         } catch (IOException e) { }
 
         return new ArrayList<>();
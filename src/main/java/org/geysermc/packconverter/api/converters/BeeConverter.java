@@ -28,14 +28,12 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -51,7 +49,7 @@ public class BeeConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/bee/bee_nectar.png"});
     }
 
-    public BeeConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public BeeConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -60,15 +58,13 @@ public class BeeConverter extends AbstractConverter {
         try {
             String from = (String) this.data[0];
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Convert bee %s", from));
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
+            BufferedImage fromImage = readImage(from);
 
             int factor = fromImage.getWidth() / 64;
 
@@ -77,7 +73,7 @@ public class BeeConverter extends AbstractConverter {
 
                 g.drawImage(ImageUtils.flip(ImageUtils.crop(fromImage, (8 * factor), (18 * factor), (7 * factor), (6 * factor)), true, false), (15 * factor), (24 * factor), null);
 
-                ImageUtils.write(fromImage, "png", fromFile);
+                writeImage(fromImage, "png", from);
             }
         } catch (IOException e) { }
 
@@ -28,15 +28,14 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.utils.RasterView;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class ChestFrontConverter extends AbstractConverter {
@@ -50,7 +49,7 @@ public class ChestFrontConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/chest/ender.png", "textures/blocks/ender_chest_front.png"});
     }
 
-    public ChestFrontConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public ChestFrontConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -60,31 +59,40 @@ public class ChestFrontConverter extends AbstractConverter {
             String from = (String) this.data[0];
             String to = (String) this.data[1];
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Create chest front %s", to));
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
+            BufferedImage fromImage = readImage(from);
 
             fromImage = ImageUtils.ensureMinWidth(fromImage, 64);
 
             int factor = fromImage.getWidth() / 64;
 
             BufferedImage newImage = new BufferedImage((14 * factor), (14 * factor), BufferedImage.TYPE_INT_ARGB);
-            Graphics g = newImage.getGraphics();
+            RasterView fromView = RasterView.of(fromImage);
+            RasterView newView = RasterView.of(newImage);
 
-            g.drawImage(ImageUtils.crop(fromImage, (14 * factor), (14 * factor), (14 * factor), (5 * factor)), 0, 0, null);
+            fromView.region((14 * factor), (14 * factor), (14 * factor), (5 * factor)).blit(newView, 0, 0);
 
-            g.drawImage(ImageUtils.crop(fromImage, (14 * factor), (34 * factor), (14 * factor), (9 * factor)), 0, (5 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage , factor, factor, (2 * factor), (4 * factor)), (6 * factor), (3 * factor), null);
+            fromView.region((14 * factor), (34 * factor), (14 * factor), (9 * factor)).blit(newView, 0, (5 * factor));
+            fromView.region(factor, factor, (2 * factor), (4 * factor)).blit(newView, (6 * factor), (3 * factor));
 
-            ImageUtils.write(newImage, "png", storage.resolve(to).toFile());
+            writeImage(newImage, "png", to);
         } catch (IOException e) { }
 
         return new ArrayList<>();
     }
+
+    @Override
+    public List<String> getReadPaths() {
+        return Collections.singletonList((String) this.data[0]);
+    }
+
+    @Override
+    public List<String> getWritePaths() {
+        return Collections.singletonList((String) this.data[1]);
+    }
 }
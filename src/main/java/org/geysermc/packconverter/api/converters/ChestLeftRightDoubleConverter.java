@@ -28,14 +28,13 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.utils.RasterTransform;
+import org.geysermc.packconverter.api.utils.TextureLayout;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -50,7 +49,45 @@ public class ChestLeftRightDoubleConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/chest/christmas_left.png", "textures/entity/chest/christmas_right.png", "textures/entity/chest/christmas_double.png"});
     }
 
-    public ChestLeftRightDoubleConverter(PackConverter packConverter, Path storage, Object[] data) {
+    private static final int LEFT = 0;
+    private static final int RIGHT = 1;
+
+    private static final TextureLayout LAYOUT = new TextureLayout()
+            .copy(RIGHT, 0, 14, 14, 5, 0, 14, RasterTransform.ROTATE_180)
+            .copy(LEFT, 29, 14, 14, 5, 44, 14, RasterTransform.ROTATE_180)
+
+            .copy(RIGHT, 0, 33, 14, 10, 0, 33, RasterTransform.ROTATE_180)
+            .copy(LEFT, 29, 33, 14, 10, 44, 33, RasterTransform.ROTATE_180)
+
+            .copy(RIGHT, 29, 0, 15, 14, 14, 0, RasterTransform.FLIP_VERTICAL)
+            .copy(LEFT, 29, 0, 15, 14, 29, 0, RasterTransform.FLIP_VERTICAL)
+
+            .copy(RIGHT, 43, 14, 15, 5, 14, 14, RasterTransform.ROTATE_180)
+            .copy(LEFT, 43, 14, 15, 5, 29, 14, RasterTransform.ROTATE_180)
+
+            .copy(RIGHT, 29, 19, 15, 14, 14, 19, RasterTransform.FLIP_VERTICAL)
+            .copy(LEFT, 29, 19, 15, 14, 29, 19, RasterTransform.FLIP_VERTICAL)
+
+            .copy(RIGHT, 43, 33, 15, 10, 14, 33, RasterTransform.ROTATE_180)
+            .copy(LEFT, 43, 33, 15, 10, 29, 33, RasterTransform.ROTATE_180)
+
+            .copy(RIGHT, 14, 0, 15, 14, 44, 0, RasterTransform.FLIP_VERTICAL)
+            .copy(LEFT, 14, 0, 15, 14, 59, 0, RasterTransform.FLIP_VERTICAL)
+
+            .copy(RIGHT, 14, 19, 15, 14, 44, 19, RasterTransform.FLIP_VERTICAL)
+            .copy(LEFT, 14, 19, 15, 14, 59, 19, RasterTransform.FLIP_VERTICAL)
+
+            .copy(RIGHT, 14, 14, 15, 5, 73, 14, RasterTransform.ROTATE_180)
+
+            .copy(LEFT, 14, 14, 15, 5, 58, 14, RasterTransform.ROTATE_180)
+            .copy(RIGHT, 14, 14, 15, 5, 73, 14, RasterTransform.ROTATE_180)
+
+            .copy(LEFT, 14, 33, 15, 10, 58, 33, RasterTransform.ROTATE_180)
+            .copy(RIGHT, 14, 33, 15, 10, 73, 33, RasterTransform.ROTATE_180)
+
+            .copy(LEFT, 0, 0, 6, 6, 0, 0);
+
+    public ChestLeftRightDoubleConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -63,61 +100,21 @@ public class ChestLeftRightDoubleConverter extends AbstractConverter {
             String fromRight = (String) this.data[1];
             String to = (String) this.data[2];
 
-            File leftFile = storage.resolve(fromLeft).toFile();
-            File rightFile = storage.resolve(fromRight).toFile();
-
-            if (!leftFile.exists() || !rightFile.exists()) {
+            if (!storage.exists(fromLeft) || !storage.exists(fromRight)) {
                 return delete;
             }
 
             packConverter.log(String.format("Convert double chest %s", to));
 
-            BufferedImage leftImage = ImageIO.read(leftFile);
-            BufferedImage rightImage = ImageIO.read(rightFile);
+            BufferedImage leftImage = readImage(fromLeft);
+            BufferedImage rightImage = readImage(fromRight);
 
             leftImage = ImageUtils.ensureMinWidth(leftImage, 64);
             rightImage = ImageUtils.ensureMinWidth(rightImage, 64);
 
             int factor = leftImage.getWidth() / 64;
 
-            BufferedImage newImage = new BufferedImage((128 * factor), (64 * factor), BufferedImage.TYPE_INT_ARGB);
-            Graphics g = newImage.getGraphics();
-
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(rightImage, 0, (14 * factor), (14 * factor), (5 * factor)), 180), 0, (14 * factor), null);
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(leftImage, (29 * factor), (14 * factor), (14 * factor), (5 * factor)), 180), (44 * factor), (14 * factor), null);
-
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(rightImage, 0, (33 * factor), (14 * factor), (10 * factor)), 180), 0, (33 * factor), null);
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(leftImage, (29 * factor), (33 * factor), (14 * factor), (10 * factor)), 180), (44 * factor), (33 * factor), null);
-
-            g.drawImage(ImageUtils.flip(ImageUtils.crop(rightImage, (29 * factor), 0, (15 * factor), (14 * factor)), false, true), (14 * factor), 0, null);
-            g.drawImage(ImageUtils.flip(ImageUtils.crop(leftImage, (29 * factor), 0, (15 * factor), (14 * factor)), false, true), (29 * factor), 0, null);
-
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(rightImage, (43 * factor), (14 * factor), (15 * factor), (5 * factor)), 180), (14 * factor), (14 * factor), null);
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(leftImage, (43 * factor), (14 * factor), (15 * factor), (5 * factor)), 180), (29 * factor), (14 * factor), null);
-
-            g.drawImage(ImageUtils.flip(ImageUtils.crop(rightImage, (29 * factor), (19 * factor), (15 * factor), (14 * factor)), false, true), (14 * factor), (19 * factor), null);
-            g.drawImage(ImageUtils.flip(ImageUtils.crop(leftImage, (29 * factor), (19 * factor), (15 * factor), (14 * factor)), false, true), (29 * factor), (19 * factor), null);
-
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(rightImage, (43 * factor), (33 * factor), (15 * factor), (10 * factor)), 180), (14 * factor), (33 * factor), null);
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(leftImage, (43 * factor), (33 * factor), (15 * factor), (10 * factor)), 180), (29 * factor), (33 * factor), null);
-
-            g.drawImage(ImageUtils.flip(ImageUtils.crop(rightImage, (14 * factor), 0, (15 * factor), (14 * factor)), false, true), (44 * factor), 0, null);
-            g.drawImage(ImageUtils.flip(ImageUtils.crop(leftImage, (14 * factor), 0, (15 * factor), (14 * factor)), false, true), (59 * factor), 0, null);
-
-            g.drawImage(ImageUtils.flip(ImageUtils.crop(rightImage, (14 * factor), (19 * factor), (15 * factor), (14 * factor)), false, true), (44 * factor), (19 * factor), null);
-            g.drawImage(ImageUtils.flip(ImageUtils.crop(leftImage, (14 * factor), (19 * factor), (15 * factor), (14 * factor)), false, true), (59 * factor), (19 * factor), null);
-
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(rightImage, (14 * factor), (14 * factor), (15 * factor), (5 * factor)), 180), (73 * factor), (14 * factor), null);
-
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(leftImage, (14 * factor), (14 * factor), (15 * factor), (5 * factor)), 180), (58 * factor), (14 * factor), null);
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(rightImage, (14 * factor), (14 * factor), (15 * factor), (5 * factor)), 180), (73 * factor), (14 * factor), null);
-
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(leftImage, (14 * factor), (33 * factor), (15 * factor), (10 * factor)), 180), (58 * factor), (33 * factor), null);
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(rightImage, (14 * factor), (33 * factor), (15 * factor), (10 * factor)), 180), (73 * factor), (33 * factor), null);
-
-            g.drawImage(ImageUtils.crop(leftImage, 0, 0, (6 * factor), (6 * factor)), 0, 0, null);
-
-            ImageUtils.write(newImage, "png", storage.resolve(to).toFile());
+            writeImage(LAYOUT.tile((128 * factor), (64 * factor), factor, leftImage, rightImage), "png", to);
 
             delete.add(new DeleteConverter(packConverter, storage, new Object[] {fromLeft}));
             delete.add(new DeleteConverter(packConverter, storage, new Object[] {fromRight}));
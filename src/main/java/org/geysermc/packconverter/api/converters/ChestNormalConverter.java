@@ -28,14 +28,13 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.utils.RasterTransform;
+import org.geysermc.packconverter.api.utils.TextureLayout;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -51,59 +50,55 @@ public class ChestNormalConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/chest/christmas.png"});
     }
 
-    public ChestNormalConverter(PackConverter packConverter, Path storage, Object[] data) {
-        super(packConverter, storage, data);
-    }
-
-    @Override
-    public List<AbstractConverter> convert() {
-        try {
-            String chest = (String) this.data[0];
-
-            File chestFile = storage.resolve(chest).toFile();
+    private static final TextureLayout LAYOUT = new TextureLayout()
+            .copy(0, 14, 14, 5, 0, 14, RasterTransform.ROTATE_180)
 
-            if (!chestFile.exists()) {
-                return new ArrayList<>();
-            }
+            .copy(0, 33, 14, 10, 0, 33, RasterTransform.ROTATE_180)
 
-            packConverter.log(String.format("Convert normal chest %s", chest));
+            .copy(28, 0, 14, 14, 14, 0, RasterTransform.FLIP_VERTICAL)
 
-            BufferedImage chestImage = ImageIO.read(chestFile);
+            .copy(42, 14, 14, 5, 14, 14, RasterTransform.ROTATE_180)
 
-            chestImage = ImageUtils.ensureMinWidth(chestImage, 64);
+            .copy(28, 19, 14, 14, 14, 19, RasterTransform.FLIP_VERTICAL)
 
-            int factor = chestImage.getWidth() / 64;
+            .copy(42, 33, 14, 10, 14, 33, RasterTransform.ROTATE_180)
 
-            BufferedImage newChestImage = new BufferedImage((64 * factor), (64 * factor), BufferedImage.TYPE_INT_ARGB);
-            Graphics g = newChestImage.getGraphics();
+            .copy(14, 0, 14, 14, 28, 0, RasterTransform.FLIP_VERTICAL)
 
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(chestImage, 0, (14 * factor), (14 * factor), (5 * factor)), 180), 0, (14 * factor), null);
+            .copy(28, 14, 14, 5, 28, 14, RasterTransform.ROTATE_180)
 
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(chestImage, 0, (33 * factor), (14 * factor), (10 * factor)), 180), 0, (33 * factor), null);
+            .copy(14, 19, 14, 14, 28, 19, RasterTransform.FLIP_VERTICAL)
 
-            g.drawImage(ImageUtils.flip(ImageUtils.crop(chestImage, (28 * factor), 0, (14 * factor), (14 * factor)), false, true), (14 * factor), 0, null);
+            .copy(28, 33, 14, 10, 28, 33, RasterTransform.ROTATE_180)
 
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(chestImage, (42 * factor), (14 * factor), (14 * factor), (5 * factor)), 180), (14 * factor), (14 * factor), null);
+            .copy(14, 14, 14, 5, 42, 14, RasterTransform.ROTATE_180)
 
-            g.drawImage(ImageUtils.flip(ImageUtils.crop(chestImage, (28 * factor), (19 * factor), (14 * factor), (14 * factor)),false, true), (14 * factor), (19 * factor), null);
+            .copy(14, 33, 14, 10, 42, 33, RasterTransform.ROTATE_180)
 
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(chestImage, (42 * factor), (33 * factor), (14 * factor), (10 * factor)), 180), (14 * factor), (33 * factor), null);
+            .copy(0, 0, 6, 6, 0, 0);
 
-            g.drawImage(ImageUtils.flip(ImageUtils.crop(chestImage, (14 * factor), 0, (14 * factor), (14 * factor)),false, true), (28 * factor), 0, null);
+    public ChestNormalConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
+        super(packConverter, storage, data);
+    }
 
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(chestImage, (28 * factor), (14 * factor), (14 * factor), (5 * factor)), 180), (28 * factor), (14 * factor), null);
+    @Override
+    public List<AbstractConverter> convert() {
+        try {
+            String chest = (String) this.data[0];
 
-            g.drawImage(ImageUtils.flip(ImageUtils.crop(chestImage, (14 * factor), (19 * factor), (14 * factor), (14 * factor)),false, true), (28 * factor), (19 * factor), null);
+            if (!storage.exists(chest)) {
+                return new ArrayList<>();
+            }
 
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(chestImage, (28 * factor), (33 * factor), (14 * factor), (10 * factor)), 180), (28 * factor), (33 * factor), null);
+            packConverter.log(String.format("Convert normal chest %s", chest));
 
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(chestImage, (14 * factor), (14 * factor), (14 * factor), (5 * factor)), 180), (42 * factor), (14 * factor), null);
+            BufferedImage chestImage = readImage(chest);
 
-            g.drawImage(ImageUtils.rotate(ImageUtils.crop(chestImage, (14 * factor), (33 * factor), (14 * factor), (10 * factor)), 180), (42 * factor), (33 * factor), null);
+            chestImage = ImageUtils.ensureMinWidth(chestImage, 64);
 
-            g.drawImage(ImageUtils.crop(chestImage, 0, 0, (6 * factor), (6 * factor)), 0, 0, null);
+            int factor = chestImage.getWidth() / 64;
 
-            ImageUtils.write(newChestImage, "png", chestFile);
+            writeImage(LAYOUT.tile((64 * factor), (64 * factor), factor, chestImage), "png", chest);
         } catch (IOException e) { }
 
         return new ArrayList<>();
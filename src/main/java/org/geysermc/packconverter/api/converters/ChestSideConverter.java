@@ -28,15 +28,14 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.utils.RasterView;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class ChestSideConverter extends AbstractConverter {
@@ -49,7 +48,7 @@ public class ChestSideConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/chest/ender.png", "textures/blocks/ender_chest_side.png"});
     }
 
-    public ChestSideConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public ChestSideConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -59,30 +58,39 @@ public class ChestSideConverter extends AbstractConverter {
             String from = (String) this.data[0];
             String to = (String) this.data[1];
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Create chest side %s", to));
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
+            BufferedImage fromImage = readImage(from);
 
             fromImage = ImageUtils.ensureMinWidth(fromImage, 64);
 
             int factor = fromImage.getWidth() / 64;
 
             BufferedImage newImage = new BufferedImage((14 * factor), (14 * factor), BufferedImage.TYPE_INT_ARGB);
-            Graphics g = newImage.getGraphics();
+            RasterView fromView = RasterView.of(fromImage);
+            RasterView newView = RasterView.of(newImage);
 
-            g.drawImage(ImageUtils.crop(fromImage, (28 * factor), (14 * factor), (14 * factor), (5 * factor)), 0, 0, null);
+            fromView.region((28 * factor), (14 * factor), (14 * factor), (5 * factor)).blit(newView, 0, 0);
 
-            g.drawImage(ImageUtils.crop(fromImage, (28 * factor), (34 * factor), (14 * factor), (9 * factor)), 0, (5 * factor), null);
+            fromView.region((28 * factor), (34 * factor), (14 * factor), (9 * factor)).blit(newView, 0, (5 * factor));
 
-            ImageUtils.write(newImage, "png", storage.resolve(to).toFile());
+            writeImage(newImage, "png", to);
         } catch (IOException e) { }
 
         return new ArrayList<>();
     }
+
+    @Override
+    public List<String> getReadPaths() {
+        return Collections.singletonList((String) this.data[0]);
+    }
+
+    @Override
+    public List<String> getWritePaths() {
+        return Collections.singletonList((String) this.data[1]);
+    }
 }
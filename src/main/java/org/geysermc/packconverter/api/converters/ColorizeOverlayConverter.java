@@ -28,14 +28,12 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -246,7 +244,7 @@ public class ColorizeOverlayConverter extends AbstractConverter {
         defaultData.add(new Object[] {new Object[] {new Object[] {"textures/items/tipped_arrow_base.png"}, new Object[] {"textures/items/tipped_arrow_head.png", new Color(50, 39, 36)}}, "textures/items/tipped_arrow_wither.png"});
     }
 
-    public ColorizeOverlayConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public ColorizeOverlayConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -257,8 +255,9 @@ public class ColorizeOverlayConverter extends AbstractConverter {
         try {
             Object[] overlays = (Object[]) this.data[0];
             String to = (String) this.data[1];
-            
-            BufferedImage finalImage = null;
+
+            List<BufferedImage> images = new ArrayList<>();
+            List<Color> colors = new ArrayList<>();
 
             for (Object overlay : overlays) {
                 Object[] overlayArr = (Object[]) overlay;
@@ -266,30 +265,24 @@ public class ColorizeOverlayConverter extends AbstractConverter {
                 Color color = overlayArr.length > 1 && overlayArr[1] != null ? (Color) overlayArr[1] : Color.white;
                 boolean deleteOverlay = overlayArr.length > 2 ? (boolean) overlayArr[2] : false;
 
-                File overlayFile = storage.resolve(overlayPath).toFile();
-                if (!overlayFile.exists()) {
+                if (!storage.exists(overlayPath)) {
                     continue;
                 }
 
-                BufferedImage overlayImage = ImageIO.read(overlayFile);
-                
-                if (finalImage == null) {
+                if (images.isEmpty()) {
                     packConverter.log(String.format("Colorize and overlay %s", to));
-
-                    finalImage = new BufferedImage(overlayImage.getWidth(), overlayImage.getHeight(), BufferedImage.TYPE_INT_ARGB);
                 }
 
-                overlayImage = ImageUtils.colorize(overlayImage, color);
-
-                finalImage.getGraphics().drawImage(overlayImage, 0, 0, null);
+                images.add(readImage(overlayPath));
+                colors.add(color);
 
                 if (deleteOverlay) {
                     delete.add(new DeleteConverter(packConverter, storage, new Object[] {overlayPath}));
                 }
             }
 
-            if (finalImage != null) {
-                ImageUtils.write(finalImage, "png", storage.resolve(to).toFile());
+            if (!images.isEmpty()) {
+                writeImage(ImageUtils.colorizeOverlay(images, colors), "png", to);
             }
         } catch (IOException e) { }
 
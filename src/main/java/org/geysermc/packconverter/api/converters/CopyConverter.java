@@ -28,11 +28,11 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class CopyConverter extends AbstractConverter {
@@ -107,7 +107,7 @@ public class CopyConverter extends AbstractConverter {
         defaultData.add(new String[] {"bedrock_textures/", "textures/"});
     }
 
-    public CopyConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public CopyConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -117,15 +117,25 @@ public class CopyConverter extends AbstractConverter {
             String from = (String) this.data[0];
             String to = (String) this.data[1];
 
-            if (!storage.resolve(from).toFile().exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Copy %s to %s", from, to));
 
-            Files.copy(storage.resolve(from), storage.resolve(to));
+            storage.copy(from, to);
         } catch (IOException e) { }
 
         return new ArrayList<>();
     }
+
+    @Override
+    public List<String> getReadPaths() {
+        return Collections.singletonList((String) this.data[0]);
+    }
+
+    @Override
+    public List<String> getWritePaths() {
+        return Collections.singletonList((String) this.data[1]);
+    }
 }
@@ -35,14 +35,13 @@ import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.CustomModelData;
 import org.geysermc.packconverter.api.utils.CustomModelDataHandler;
 
 import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class CustomModelDataConverter extends AbstractConverter {
@@ -54,7 +53,7 @@ public class CustomModelDataConverter extends AbstractConverter {
         defaultData.add(new String[] {"assets/minecraft/models/item", "textures/item_texture.json"});
     }
 
-    public CustomModelDataConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public CustomModelDataConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -81,14 +80,13 @@ public class CustomModelDataConverter extends AbstractConverter {
             textureData.put("resource_pack_name", "geysercmd");
             textureData.put("texture_name", "atlas.items");
             ObjectNode allTextures = mapper.createObjectNode();
-            handleCustomModelData(itemInformation, allTextures, mapper, storage.resolve(from).toFile());
+            handleCustomModelData(itemInformation, allTextures, mapper, from);
 
             textureData.set("texture_data", allTextures);
 
             if (!packConverter.getCustomModelData().isEmpty()) {
                 // We have custom model data, so let's write the textures
-                OutputStream outputStream = Files.newOutputStream(storage.resolve(to), StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE);
-                mapper.writer(new DefaultPrettyPrinter()).writeValue(outputStream, textureData);
+                storage.write(to, mapper.writer(new DefaultPrettyPrinter()).writeValueAsBytes(textureData));
             }
             packConverter.log(String.format("Converted models %s", from));
         } catch (Exception e) {
@@ -98,21 +96,18 @@ public class CustomModelDataConverter extends AbstractConverter {
         return new ArrayList<>();
     }
 
-    private void handleCustomModelData(JsonNode itemInformation, ObjectNode allTextures, ObjectMapper mapper, File directory) {
-        for (File file : directory.listFiles()) {
+    private void handleCustomModelData(JsonNode itemInformation, ObjectNode allTextures, ObjectMapper mapper, String directory) throws IOException {
+        for (String file : storage.list(directory)) {
             try {
-                if (!file.isFile()) {
-                    handleCustomModelData(itemInformation, allTextures, mapper, file);
-                }
-                InputStream stream = new FileInputStream(file);
+                String fileName = file.substring(file.lastIndexOf('/') + 1);
 
-                JsonNode node = mapper.readTree(stream);
+                JsonNode node = mapper.readTree(storage.read(file));
                 if (node.has("overrides")) {
-                    String originalItemName = file.getName().replace(".json", "");
+                    String originalItemName = fileName.replace(".json", "");
                     JsonNode itemJsonInfo = itemInformation.get(originalItemName);
                     if (itemJsonInfo == null) {
-                        System.out.println("No item information for " + file.getName().replace(".json", ""));
-                        return;
+                        System.out.println("No item information for " + fileName.replace(".json", ""));
+                        continue;
                     }
                     for (JsonNode override : node.get("overrides")) {
                         JsonNode predicate = override.get("predicate");
@@ -142,7 +137,7 @@ public class CustomModelDataConverter extends AbstractConverter {
                                 Int2ObjectMap<CustomModelData> map = new Int2ObjectOpenHashMap<>();
                                 map.put(id, customModelData);
                                 // Put the vanilla item (stick) and the initialized map in the custom model data table
-                                packConverter.getCustomModelData().put(file.getName().replace(".json", ""), map);
+                                packConverter.getCustomModelData().put(fileName.replace(".json", ""), map);
                             } else {
                                 // Map exists, add the new CustomModelData ID and Bedrock string identifier
                                 data.put(id, customModelData);
@@ -164,4 +159,16 @@ public class CustomModelDataConverter extends AbstractConverter {
             }
         }
     }
+
+    @Override
+    public List<String> getReadPaths() {
+        // Models and their textures are only read from the namespaced assets
+        return Collections.singletonList("assets/");
+    }
+
+    @Override
+    public List<String> getWritePaths() {
+        // Textures are copied out of any namespace
+        return null;
+    }
 }
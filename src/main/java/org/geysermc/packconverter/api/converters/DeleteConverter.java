@@ -28,13 +28,9 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -54,7 +50,7 @@ public class DeleteConverter extends AbstractConverter {
         defaultData.add(new Object[] {"bedrock_textures/"});
     }
 
-    public DeleteConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public DeleteConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -63,31 +59,15 @@ public class DeleteConverter extends AbstractConverter {
         try {
             String from = (String) this.data[0];
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Delete %s", from));
 
-            if (fromFile.isDirectory()) {
-                deleteDirectory(fromFile);
-            } else {
-                Files.delete(fromFile.toPath());
-            }
+            storage.delete(from);
         } catch (IOException e) { }
 
         return new ArrayList<>();
     }
-
-    private void deleteDirectory(File directoryToBeDeleted) {
-        File[] allContents = directoryToBeDeleted.listFiles();
-        if (allContents != null) {
-            for (File file : allContents) {
-                deleteDirectory(file);
-            }
-        }
-        directoryToBeDeleted.delete();
-    }
 }
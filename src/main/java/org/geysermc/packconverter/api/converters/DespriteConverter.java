@@ -28,14 +28,12 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -89,7 +87,7 @@ public class DespriteConverter extends AbstractConverter {
         });
     }
 
-    public DespriteConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public DespriteConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -100,12 +98,11 @@ public class DespriteConverter extends AbstractConverter {
             int factorDetect = (int) this.data[1];
             Object[] sprites = (Object[]) this.data[2];
 
-            File fromFile = storage.resolve(from).toFile();
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
             
-            BufferedImage fromImage = ImageIO.read(fromFile);
+            BufferedImage fromImage = readImage(from);
             fromImage = ImageUtils.ensureMinWidth(fromImage, factorDetect);
 
             int factor = (fromImage.getWidth() / factorDetect);
@@ -129,7 +126,7 @@ public class DespriteConverter extends AbstractConverter {
                     g.fillRect((emptyOverlay[0] * factor), (emptyOverlay[1] * factor), (emptyOverlay[2] * factor), (emptyOverlay[3] * factor));
                 }
 
-                ImageUtils.write(spriteImage, "png", storage.resolve(to).toFile());
+                writeImage(spriteImage, "png", to);
             }
         } catch (IOException e) { }
 
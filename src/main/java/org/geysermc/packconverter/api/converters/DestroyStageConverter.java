@@ -28,14 +28,13 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
-import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
+import org.geysermc.packconverter.api.utils.PixelKernels;
+import org.geysermc.packconverter.api.utils.RasterUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -57,7 +56,7 @@ public class DestroyStageConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/environment/destroy_stage_9.png"});
     }
 
-    public DestroyStageConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public DestroyStageConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -66,27 +65,21 @@ public class DestroyStageConverter extends AbstractConverter {
         try {
             String from = (String) this.data[0];
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Convert destroy stage %s", from));
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
-
             Color blank = new Color(255, 255, 255, 0);
-            for (int x = 0; x < fromImage.getWidth(); x++) {
-                for (int y = 0; y < fromImage.getHeight(); y++) {
-                    Color c = new Color(fromImage.getRGB(x, y), true);
-                    if (c.getAlpha() == 0) {
-                        fromImage.setRGB(x, y, blank.getRGB());
-                    }
+            transformImage(from, from, "png", fromImage -> {
+                BufferedImage newImage = RasterUtils.createImage(fromImage.getWidth(), fromImage.getHeight());
+                if (!PixelKernels.replaceTransparent(RasterUtils.getPixels(fromImage), RasterUtils.getData(newImage), blank.getRGB())) {
+                    return fromImage;
                 }
-            }
 
-            ImageUtils.write(fromImage, "png", fromFile);
+                return newImage;
+            });
         } catch (IOException e) { }
 
         return new ArrayList<>();
@@ -31,14 +31,12 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -72,7 +70,7 @@ public class DialogConverter extends AbstractConverter {
         });
     }
 
-    public DialogConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public DialogConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -83,12 +81,11 @@ public class DialogConverter extends AbstractConverter {
             int factorDetect = (int) this.data[1];
             Object[] dialogs = (Object[]) this.data[2];
 
-            File fromFile = storage.resolve(from).toFile();
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
             
-            BufferedImage fromImage = ImageIO.read(fromFile);
+            BufferedImage fromImage = readImage(from);
             fromImage = ImageUtils.ensureMinWidth(fromImage, factorDetect);
 
             int factor = (fromImage.getWidth() / factorDetect);
@@ -129,9 +126,9 @@ public class DialogConverter extends AbstractConverter {
 
                     packConverter.log(String.format("Convert dialog %s (Experimental)", toPath));
 
-                    ImageUtils.write(toImage, "png", storage.resolve(toPath + ".png").toFile());
+                    writeImage(toImage, "png", toPath + ".png");
 
-                    mapper.writeValue(storage.resolve(toPath + ".json").toFile(), metadata);
+                    storage.write(toPath + ".json", mapper.writeValueAsBytes(metadata));
                 }
             }
             
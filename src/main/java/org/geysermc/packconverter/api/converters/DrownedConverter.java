@@ -28,14 +28,12 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,7 +46,7 @@ public class DrownedConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/zombie/drowned.png", "textures/entity/zombie/drowned_outer_layer.png", "textures/entity/zombie/drowned.png"});
     }
 
-    public DrownedConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public DrownedConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -61,17 +59,14 @@ public class DrownedConverter extends AbstractConverter {
             String overlay = (String) this.data[1];
             String to = (String) this.data[2];
 
-            File fromFile = storage.resolve(from).toFile();
-            File overlayFile = storage.resolve(overlay).toFile();
-
-            if (!fromFile.exists() || !overlayFile.exists()) {
+            if (!storage.exists(from) || !storage.exists(overlay)) {
                 return delete;
             }
 
             packConverter.log("Convert drowned");
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
-            BufferedImage overlayImage = ImageIO.read(overlayFile);
+            BufferedImage fromImage = readImage(from);
+            BufferedImage overlayImage = readImage(overlay);
 
             fromImage = ImageUtils.ensureMinWidth(fromImage, 64);
 
@@ -90,7 +85,7 @@ public class DrownedConverter extends AbstractConverter {
 
             g.drawImage(ImageUtils.crop(overlayImage, (32 * factor), (48 * factor), (16 * factor), (16 * factor)), (48 * factor), (48 * factor), null);
 
-            ImageUtils.write(newImage, "png", storage.resolve(to).toFile());
+            writeImage(newImage, "png", to);
 
             delete.add(new DeleteConverter(packConverter, storage, new Object[] {overlay}));
         } catch (IOException e) { }
@@ -28,13 +28,10 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -47,7 +44,7 @@ public class EnchantedItemGlintConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/misc/enchanted_item_glint.png"});
     }
 
-    public EnchantedItemGlintConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public EnchantedItemGlintConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -56,20 +53,13 @@ public class EnchantedItemGlintConverter extends AbstractConverter {
         try {
             String from = (String) this.data[0];
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Convert enchanted item glint %s", from));
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
-
-            fromImage = ImageUtils.saturate(fromImage, -100);
-            fromImage = ImageUtils.rotate(fromImage, -90);
-
-            ImageUtils.write(fromImage, "png", fromFile);
+            transformImage(from, from, "png", fromImage -> ImageUtils.rotate(ImageUtils.saturate(fromImage, -100), -90));
         } catch (IOException e) { }
 
         return new ArrayList<>();
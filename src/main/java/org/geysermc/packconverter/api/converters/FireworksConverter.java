@@ -28,14 +28,12 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,7 +46,7 @@ public class FireworksConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/items/fireworks.png", "textures/entity/fireworks.png"});
     }
 
-    public FireworksConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public FireworksConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -60,15 +58,13 @@ public class FireworksConverter extends AbstractConverter {
             String from = (String) this.data[0];
             String to = (String) this.data[1];
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return delete;
             }
 
             packConverter.log("Convert fireworks");
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
+            BufferedImage fromImage = readImage(from);
 
             int factor = fromImage.getWidth() / 16;
 
@@ -77,7 +73,7 @@ public class FireworksConverter extends AbstractConverter {
 
             g.drawImage(ImageUtils.rotate(fromImage, -90), 0, 0, null);
 
-            ImageUtils.write(newImage, "png", storage.resolve(to).toFile());
+            writeImage(newImage, "png", to);
         } catch (IOException e) { }
 
         return delete;
@@ -28,14 +28,12 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,7 +46,7 @@ public class FishHookConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/fishhook.png", "textures/entity/fishhook.png"});
     }
 
-    public FishHookConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public FishHookConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -60,15 +58,13 @@ public class FishHookConverter extends AbstractConverter {
             String from = (String) this.data[0];
             String to = (String) this.data[1];
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return delete;
             }
 
             packConverter.log("Convert fishhook");
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
+            BufferedImage fromImage = readImage(from);
 
             int factor = fromImage.getWidth() / 8;
 
@@ -103,7 +99,7 @@ public class FishHookConverter extends AbstractConverter {
             g.drawImage(ImageUtils.crop(fromImage, (2 * factor), (5 * factor), (3 * factor), (3 * factor)), (18 * factor), 0, null);
             g.drawImage(ImageUtils.crop(fromImage, (4 * factor), (4 * factor), factor, factor), (22 * factor), (2 * factor), null);
 
-            ImageUtils.write(newImage, "png", storage.resolve(to).toFile());
+            writeImage(newImage, "png", to);
         } catch (IOException e) { }
 
         return delete;
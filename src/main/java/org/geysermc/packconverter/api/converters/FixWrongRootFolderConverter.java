@@ -28,12 +28,10 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class FixWrongRootFolderConverter extends AbstractConverter {
 
@@ -44,7 +42,7 @@ public class FixWrongRootFolderConverter extends AbstractConverter {
         defaultData.add(new Object[] {"pack.mcmeta", new String[] {"pack.png", "assets/", "bedrock_textures/", "bedrock_uuid_header", "bedrock_uuid_module"}});
     }
 
-    public FixWrongRootFolderConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public FixWrongRootFolderConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -54,16 +52,16 @@ public class FixWrongRootFolderConverter extends AbstractConverter {
             String packMcmeta = (String) this.data[0];
             String[] moveFiles = (String[]) this.data[1];
 
-            if (storage.resolve(packMcmeta).toFile().exists()) {
+            if (storage.exists(packMcmeta)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("%s not found in root folder (But are needed in the root folder, even in the Java version) - Try to lookup in sub folders ...", packMcmeta));
 
-            Path rootPath = null;
-            for (Path filePath : Files.walk(storage).filter(Files::isRegularFile).collect(Collectors.toList())) {
-                if (filePath.getFileName().toString().equals(packMcmeta)) {
-                    rootPath = filePath.getParent();
+            String rootPath = null;
+            for (String filePath : storage.list("")) {
+                if (filePath.endsWith("/" + packMcmeta)) {
+                    rootPath = filePath.substring(0, filePath.length() - packMcmeta.length());
                     break;
                 }
             }
@@ -72,15 +70,15 @@ public class FixWrongRootFolderConverter extends AbstractConverter {
                 throw new AssertionError(String.format("%s not found! Is this really a Java texture pack?", packMcmeta));
             }
 
-            packConverter.log(String.format("Root folder found in sub folder %s", rootPath.relativize(storage).toString()));
+            packConverter.log(String.format("Root folder found in sub folder %s", rootPath));
 
             List<String> moveFilesList = new ArrayList<>();
             moveFilesList.add(packMcmeta);
             moveFilesList.addAll(Arrays.asList(moveFiles));
 
             for (String fileName : moveFilesList) {
-                if (rootPath.resolve(fileName).toFile().exists()) {
-                    Files.move(rootPath.resolve(fileName), storage.resolve(fileName));
+                if (storage.exists(rootPath + fileName)) {
+                    storage.move(rootPath + fileName, fileName);
                 }
             }
         } catch (IOException e) {
@@ -89,4 +87,15 @@ public class FixWrongRootFolderConverter extends AbstractConverter {
 
         return new ArrayList<>();
     }
+
+    @Override
+    public List<String> getReadPaths() {
+        // Moves the whole pack, so nothing else can run alongside it
+        return null;
+    }
+
+    @Override
+    public List<String> getWritePaths() {
+        return null;
+    }
 }
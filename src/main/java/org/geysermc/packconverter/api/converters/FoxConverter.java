@@ -28,14 +28,11 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
-import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
+import org.geysermc.packconverter.api.utils.TextureLayout;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -49,7 +46,35 @@ public class FoxConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/fox/arctic_fox.png", "textures/entity/fox/arctic_fox_sleep.png", "textures/entity/fox/arctic_fox.png"});
     }
 
-    public FoxConverter(PackConverter packConverter, Path storage, Object[] data) {
+    private static final int NORMAL = 0;
+    private static final int SLEEP = 1;
+
+    private static final TextureLayout LAYOUT = new TextureLayout()
+            // Ears
+            .copy(NORMAL, 8, 1, 6, 3, 0, 0)
+            .copy(NORMAL, 15, 1, 6, 3, 22, 0)
+
+            // Head normal
+            .copy(NORMAL, 1, 5, 28, 12, 0, 0)
+
+            // Head sleep
+            .copy(SLEEP, 1, 5, 28, 12, 0, 12)
+
+            // Mount
+            .copy(NORMAL, 6, 18, 14, 5, 0, 24)
+
+            // Body
+            .copy(NORMAL, 24, 21, 6, 11, 30, 21)
+            .copy(NORMAL, 30, 15, 18, 17, 36, 15)
+
+            // Tail
+            .copy(NORMAL, 30, 0, 18, 14, 28, 0)
+
+            // Legs
+            .copy(NORMAL, 4, 24, 8, 8, 14, 24)
+            .copy(NORMAL, 4, 24, 8, 8, 22, 24);
+
+    public FoxConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -62,48 +87,18 @@ public class FoxConverter extends AbstractConverter {
             String fromSleep = (String) this.data[1];
             String to = (String) this.data[2];
 
-            File fromFile = storage.resolve(from).toFile();
-            File fromSleepFile = storage.resolve(fromSleep).toFile();
-
-            if (!fromFile.exists() || !fromSleepFile.exists()) {
+            if (!storage.exists(from) || !storage.exists(fromSleep)) {
                 return delete;
             }
 
             packConverter.log(String.format("Convert fox %s", to));
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
-            BufferedImage fromSleepImage = ImageIO.read(fromSleepFile);
+            BufferedImage fromImage = readImage(from);
+            BufferedImage fromSleepImage = readImage(fromSleep);
 
             int factor = fromImage.getWidth() / 48;
 
-            BufferedImage newImage = new BufferedImage((64 * factor), (32 * factor), BufferedImage.TYPE_INT_ARGB);
-            Graphics g = newImage.getGraphics();
-
-            // Ears
-            g.drawImage(ImageUtils.crop(fromImage, (8 * factor), factor, (6 * factor), (3 * factor)), 0, 0, null);
-            g.drawImage(ImageUtils.crop(fromImage, (15 * factor), factor, (6 * factor), (3 * factor)), (22 * factor), 0, null);
-
-            // Head normal
-            g.drawImage(ImageUtils.crop(fromImage, factor, (5 * factor), (28 * factor), (12 * factor)), 0, 0, null);
-
-            // Head sleep
-            g.drawImage(ImageUtils.crop(fromSleepImage, factor, (5 * factor), (28 * factor), (12 * factor)), 0, (12 * factor), null);
-
-            // Mount
-            g.drawImage(ImageUtils.crop(fromImage, (6 * factor), (18 * factor), (14 * factor), (5 * factor)), 0, (24 * factor), null);
-
-            // Body
-            g.drawImage(ImageUtils.crop(fromImage, (24 * factor), (21 * factor), (6 * factor), (11 * factor)), (30 * factor), (21 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (30 * factor), (15 * factor), (18 * factor), (17 * factor)), (36 * factor), (15 * factor), null);
-
-            // Tail
-            g.drawImage(ImageUtils.crop(fromImage, (30 * factor), 0, (18 * factor), (14 * factor)), (28 * factor), 0, null);
-
-            // Legs
-            g.drawImage(ImageUtils.crop(fromImage, (4 * factor), (24 * factor), (8 * factor), (8 * factor)), (14 * factor), (24 * factor), null);
-            g.drawImage(ImageUtils.crop(fromImage, (4 * factor), (24 * factor), (8 * factor), (8 * factor)), (22 * factor), (24 * factor), null);
-
-            ImageUtils.write(newImage, "png", storage.resolve(to).toFile());
+            writeImage(LAYOUT.tile((64 * factor), (32 * factor), factor, fromImage, fromSleepImage), "png", to);
         } catch (IOException e) { }
 
         return delete;
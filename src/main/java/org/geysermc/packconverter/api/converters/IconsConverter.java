@@ -28,14 +28,13 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
-import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
+import org.geysermc.packconverter.api.utils.PixelKernels;
+import org.geysermc.packconverter.api.utils.RasterUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,7 +47,7 @@ public class IconsConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/gui/icons.png"});
     }
 
-    public IconsConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public IconsConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -57,26 +56,20 @@ public class IconsConverter extends AbstractConverter {
         try {
             String from = (String) this.data[0];
 
-            File iconsFile = storage.resolve(from).toFile();
-
-            if (!iconsFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Convert icons %s", from));
 
-            BufferedImage iconsImage = ImageIO.read(iconsFile);
-
-            for (int x = 0; x < iconsImage.getWidth(); x++) {
-                for (int y = 0; y < iconsImage.getHeight(); y++) {
-                    Color c = new Color(iconsImage.getRGB(x, y), true);
-                    if (c.getAlpha() == 0) {
-                        iconsImage.setRGB(x, y, Color.TRANSLUCENT);
-                    }
+            transformImage(from, from, "png", iconsImage -> {
+                BufferedImage newImage = RasterUtils.createImage(iconsImage.getWidth(), iconsImage.getHeight());
+                if (!PixelKernels.replaceTransparent(RasterUtils.getPixels(iconsImage), RasterUtils.getData(newImage), Color.TRANSLUCENT)) {
+                    return iconsImage;
                 }
-            }
 
-            ImageUtils.write(iconsImage, "png", iconsFile);
+                return newImage;
+            });
         } catch (IOException e) { }
 
         return new ArrayList<>();
@@ -28,14 +28,12 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,7 +46,7 @@ public class MapIconsConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/map/map_icons.png", "textures/map/map_icons.png"});
     }
 
-    public MapIconsConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public MapIconsConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -58,15 +56,13 @@ public class MapIconsConverter extends AbstractConverter {
             String from = (String) this.data[0];
             String to = (String) this.data[1];
 
-            File iconsFile = storage.resolve(from).toFile();
-
-            if (!iconsFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Convert map icons %s", to));
 
-            BufferedImage iconsImage = ImageIO.read(iconsFile);
+            BufferedImage iconsImage = readImage(from);
 
             int factor = iconsImage.getWidth() / 128;
 
@@ -93,7 +89,7 @@ public class MapIconsConverter extends AbstractConverter {
             g.drawImage(ImageUtils.scale(ImageUtils.crop(iconsImage, (64 * factor), 0, (8 * factor), (8 * factor)), 2f), (32 * factor), (48 * factor), null);
             g.drawImage(ImageUtils.scale(ImageUtils.crop(iconsImage, (72 * factor), 0, (8 * factor), (8 * factor)), 2f), (48 * factor), (48 * factor), null);
 
-            ImageUtils.write(newIconsImage, "png", storage.resolve(to).toFile());
+            writeImage(newIconsImage, "png", to);
         } catch (IOException e) { }
 
         return new ArrayList<>();
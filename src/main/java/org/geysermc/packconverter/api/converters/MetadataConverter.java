@@ -37,11 +37,11 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ResourcePackManifest;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -56,7 +56,7 @@ public class MetadataConverter extends AbstractConverter {
         defaultData.add(new Object[] {"pack.mcmeta", "manifest.json"});
     }
 
-    public MetadataConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public MetadataConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -70,13 +70,13 @@ public class MetadataConverter extends AbstractConverter {
 
             packConverter.log(String.format("Create metadata %s", to));
 
-            if (!storage.resolve(from).toFile().exists()) {
+            if (!storage.exists(from)) {
                 throw new FileNotFoundException(String.format("Missing %s! Is this really a Java texture pack?", from));
             }
 
             ObjectMapper mapper = new ObjectMapper().enable(JsonParser.Feature.ALLOW_COMMENTS);
 
-            JsonNode packmeta = mapper.readTree(storage.resolve(from).toFile()).get("pack");
+            JsonNode packmeta = mapper.readTree(storage.read(from)).get("pack");
             int packFormat = packmeta.get("pack_format").asInt();
             String packDesc = packmeta.get("description").asText();
 
@@ -91,7 +91,7 @@ public class MetadataConverter extends AbstractConverter {
             }
 
             ResourcePackManifest.Header header = new ResourcePackManifest.Header();
-            header.setName(storage.getFileName().toString().replace(".zip_mcpack", ""));
+            header.setName(storage.getName().replace(".zip_mcpack", ""));
             header.setDescription(packDesc);
             header.setUuid(UUID.randomUUID());
             header.setVersion(new int[] {1, 0, 0});
@@ -111,7 +111,7 @@ public class MetadataConverter extends AbstractConverter {
             manifest.setModules(modules);
 
             ObjectWriter writer = mapper.writer(new DefaultPrettyPrinter());
-            writer.writeValue(storage.resolve(to).toFile(), manifest);
+            storage.write(to, writer.writeValueAsBytes(manifest));
 
             delete.add(new DeleteConverter(packConverter, storage, new Object[] {from}));
         } catch (IOException e) {
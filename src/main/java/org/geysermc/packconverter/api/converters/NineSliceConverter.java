@@ -31,14 +31,12 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -236,7 +234,7 @@ public class NineSliceConverter extends AbstractConverter {
         });
     }
 
-    public NineSliceConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public NineSliceConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -248,12 +246,11 @@ public class NineSliceConverter extends AbstractConverter {
             Object[] buttons = (Object[]) this.data[2];
             String[] borders = (String[]) this.data[3];
 
-            File fromFile = storage.resolve(from).toFile();
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
             
-            BufferedImage fromImage = ImageIO.read(fromFile);
+            BufferedImage fromImage = readImage(from);
             fromImage = ImageUtils.ensureMinWidth(fromImage, factorDetect);
 
             int factor = (fromImage.getWidth() / factorDetect);
@@ -278,9 +275,9 @@ public class NineSliceConverter extends AbstractConverter {
                 for (String toPath : tos) {
                     packConverter.log(String.format("Convert button %s (Experimental)", toPath));
 
-                    ImageUtils.write(toImage, "png", storage.resolve(toPath + ".png").toFile());
+                    writeImage(toImage, "png", toPath + ".png");
 
-                    mapper.writeValue(storage.resolve(toPath + ".json").toFile(), metadata);
+                    storage.write(toPath + ".json", mapper.writeValueAsBytes(metadata));
                 }
             }
             
@@ -289,9 +286,9 @@ public class NineSliceConverter extends AbstractConverter {
             for (String border : borders) {
                 packConverter.log(String.format("Convert button %s (Experimental)", border));
 
-                ImageUtils.write(transparentImage, "png", storage.resolve(border + ".png").toFile());
+                writeImage(transparentImage, "png", border + ".png");
 
-                mapper.writeValue(storage.resolve(border + ".json").toFile(), metadata);
+                storage.write(border + ".json", mapper.writeValueAsBytes(metadata));
             }
             
         } catch (IOException e) { e.printStackTrace(); }
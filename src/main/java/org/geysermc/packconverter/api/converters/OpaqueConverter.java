@@ -28,15 +28,13 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
-import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class OpaqueConverter extends AbstractConverter {
@@ -54,7 +52,7 @@ public class OpaqueConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/blocks/leaves_spruce.png", "textures/blocks/leaves_spruce_opaque.png"});
     }
 
-    public OpaqueConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public OpaqueConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -64,15 +62,13 @@ public class OpaqueConverter extends AbstractConverter {
             String from = (String) this.data[0];
             String to = (String) this.data[1];
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Create opaque %s", to));
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
+            BufferedImage fromImage = readImage(from);
 
             BufferedImage toImage = new BufferedImage(fromImage.getWidth(), fromImage.getHeight(), BufferedImage.TYPE_INT_ARGB);
 
@@ -83,9 +79,19 @@ public class OpaqueConverter extends AbstractConverter {
 
             g.drawImage(fromImage, 0, 0, null);
 
-            ImageUtils.write(toImage, "png", storage.resolve(to).toFile());
+            writeImage(toImage, "png", to);
         } catch (IOException e) { }
 
         return new ArrayList<>();
     }
+
+    @Override
+    public List<String> getReadPaths() {
+        return Collections.singletonList((String) this.data[0]);
+    }
+
+    @Override
+    public List<String> getWritePaths() {
+        return Collections.singletonList((String) this.data[1]);
+    }
 }
@@ -28,14 +28,12 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
-import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
+import org.geysermc.packconverter.api.utils.PixelKernels;
+import org.geysermc.packconverter.api.utils.RasterUtils;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -87,7 +85,7 @@ public class OverlayToTranslateConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/wolf/wolf_collar.png", "textures/entity/wolf/wolf_tame.png", "textures/entity/wolf/wolf_tame.png", false, true});
     }
 
-    public OverlayToTranslateConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public OverlayToTranslateConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -102,31 +100,29 @@ public class OverlayToTranslateConverter extends AbstractConverter {
             boolean reverse = (boolean) this.data[3];
             boolean dontDelete = this.data.length > 4 && (boolean) this.data[4];
 
-            File fromFile = storage.resolve(from).toFile();
-            File overlayFile = storage.resolve(overlay).toFile();
-
-            if (!fromFile.exists() || !overlayFile.exists()) {
+            if (!storage.exists(from) || !storage.exists(overlay)) {
                 return delete;
             }
 
             packConverter.log(String.format("Create translated overlay %s", to));
 
-            BufferedImage image = ImageIO.read(fromFile);
-            BufferedImage imageOverlay = ImageIO.read(overlayFile);
+            BufferedImage image = readImage(from);
+            BufferedImage imageOverlay = readImage(overlay);
 
-            for (int x = 0; x < image.getWidth(); x++) {
-                for (int y = 0; y < image.getHeight(); y++) {
-                    Color c = new Color(image.getRGB(x, y), true);
-                    if (reverse ? c.getAlpha() > 0 : c.getAlpha() < 255) {
-                        Color newCol = new Color(imageOverlay.getRGB(x, y), true);
-                        newCol = new Color(newCol.getRed(), newCol.getGreen(), newCol.getBlue(), 2);
+            int width = image.getWidth();
+            int height = image.getHeight();
 
-                        image.setRGB(x, y, ImageUtils.colorToARGB(newCol));
-                    }
-                }
+            int[] overlayPixels;
+            if (imageOverlay.getWidth() == width && imageOverlay.getHeight() == height) {
+                overlayPixels = RasterUtils.getPixels(imageOverlay);
+            } else {
+                overlayPixels = imageOverlay.getRGB(0, 0, width, height, null, 0, width);
             }
 
-            ImageUtils.write(image, "png", storage.resolve(to).toFile());
+            BufferedImage newImage = RasterUtils.createImage(width, height);
+            PixelKernels.maskOverlay(RasterUtils.getPixels(image), overlayPixels, RasterUtils.getData(newImage), reverse, 2);
+
+            writeImage(newImage, "png", to);
 
             if (!dontDelete) {
                 delete.add(new DeleteConverter(packConverter, storage, new Object[] {overlay}));
@@ -28,13 +28,10 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -47,7 +44,7 @@ public class Particles1_13Converter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/particle/particles.png", "textures/particle/particles.png"});
     }
 
-    public Particles1_13Converter(PackConverter packConverter, Path storage, Object[] data) {
+    public Particles1_13Converter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -57,19 +54,13 @@ public class Particles1_13Converter extends AbstractConverter {
             String from = (String) this.data[0];
             String to = (String) this.data[1];
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Convert particles %s", from));
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
-
-            fromImage = ImageUtils.crop(fromImage, (fromImage.getWidth() / 2), (fromImage.getHeight() / 2)); // Bedrock only uses the first 25% of the image (Rest is transparent on Java)
-
-            ImageUtils.write(fromImage, "png", storage.resolve(to).toFile());
+            transformImage(from, to, "png", fromImage -> ImageUtils.crop(fromImage, (fromImage.getWidth() / 2), (fromImage.getHeight() / 2))); // Bedrock only uses the first 25% of the image (Rest is transparent on Java)
         } catch (IOException e) { }
 
         return new ArrayList<>();
@@ -28,14 +28,12 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.utils.RasterView;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -49,7 +47,7 @@ public class PistonArmConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/blocks/piston_top_sticky.png", "textures/blocks/piston_top_normal.png", "textures/blocks/piston_side.png", "textures/entity/pistonarm/pistonArmSticky.png"});
     }
 
-    public PistonArmConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public PistonArmConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -63,19 +61,15 @@ public class PistonArmConverter extends AbstractConverter {
             String side = (String) this.data[2];
             String to = (String) this.data[3];
 
-            File top1File = storage.resolve(top1).toFile();
-            File top2File = storage.resolve(top2).toFile();
-            File sideFile = storage.resolve(side).toFile();
-
-            if (!top1File.exists() || !top2File.exists() || !sideFile.exists()) {
+            if (!storage.exists(top1) || !storage.exists(top2) || !storage.exists(side)) {
                 return delete;
             }
 
             packConverter.log(String.format("Create piston arm %s", to));
 
-            BufferedImage top1Image = ImageIO.read(top1File);
-            BufferedImage top2Image = ImageIO.read(top2File);
-            BufferedImage sideImage = ImageIO.read(sideFile);
+            BufferedImage top1Image = readImage(top1);
+            BufferedImage top2Image = readImage(top2);
+            BufferedImage sideImage = readImage(side);
 
             top1Image = ImageUtils.ensureMinWidth(top1Image, 16);
             top2Image = ImageUtils.ensureMinWidth(top2Image, 16);
@@ -84,78 +78,79 @@ public class PistonArmConverter extends AbstractConverter {
             int factor = top1Image.getWidth() / 16;
 
             BufferedImage newImage = new BufferedImage((128 * factor), (32 * factor), BufferedImage.TYPE_INT_ARGB);
-            Graphics g = newImage.getGraphics();
+            RasterView newView = RasterView.of(newImage);
 
-            g.drawImage(top1Image, (16 * factor), 0, null);
-            g.drawImage(top2Image, (32 * factor), 0, null);
+            RasterView.of(top1Image).blit(newView, (16 * factor), 0);
+            RasterView.of(top2Image).blit(newView, (32 * factor), 0);
 
-            sideImage = ImageUtils.crop(sideImage, 0, 0, sideImage.getWidth(), (4 * factor));
-            g.drawImage(sideImage, 0, (16 * factor), null);
-            g.drawImage(sideImage, (16 * factor), (16 * factor), null);
-            g.drawImage(sideImage, (32 * factor), (16 * factor), null);
-            g.drawImage(sideImage, (48 * factor), (16 * factor), null);
+            RasterView sideView = RasterView.of(sideImage).region(0, 0, sideImage.getWidth(), (4 * factor));
+            sideView.blit(newView, 0, (16 * factor));
+            sideView.blit(newView, (16 * factor), (16 * factor));
+            sideView.blit(newView, (32 * factor), (16 * factor));
+            sideView.blit(newView, (48 * factor), (16 * factor));
 
             // Arm top
             BufferedImage side2Image = ImageUtils.rotate(ImageUtils.crop(sideImage, 0, 0, (8 * factor), (4 * factor)), -90);
+            RasterView side2View = RasterView.of(side2Image);
 
-            g.drawImage(side2Image, (64 * factor), (4 * factor), null);
-            g.drawImage(side2Image, (68 * factor), (4 * factor), null);
-            g.drawImage(side2Image, (72 * factor), (4 * factor), null);
-            g.drawImage(side2Image, (76 * factor), (4 * factor), null);
+            side2View.blit(newView, (64 * factor), (4 * factor));
+            side2View.blit(newView, (68 * factor), (4 * factor));
+            side2View.blit(newView, (72 * factor), (4 * factor));
+            side2View.blit(newView, (76 * factor), (4 * factor));
 
             // Arm bottom top
-            BufferedImage side3Image = ImageUtils.crop(side2Image, 0, (side2Image.getHeight() - factor), side2Image.getWidth(), factor);
-            BufferedImage side4Image = ImageUtils.crop(sideImage, (7 * factor), 0, factor, sideImage.getHeight());
-            BufferedImage side5Image = ImageUtils.crop(side2Image, 0, (2 * factor), side2Image.getWidth(), (4 * factor));
+            RasterView side3View = side2View.region(0, (side2Image.getHeight() - factor), side2Image.getWidth(), factor);
+            RasterView side4View = sideView.region((7 * factor), 0, factor, (4 * factor));
+            RasterView side5View = side2View.region(0, (2 * factor), side2Image.getWidth(), (4 * factor));
 
-            g.drawImage(side3Image, (70 * factor), (18 * factor), null);
-            g.drawImage(side3Image, (74 * factor), (18 * factor), null);
-            g.drawImage(side3Image, (78 * factor), (18 * factor), null);
+            side3View.blit(newView, (70 * factor), (18 * factor));
+            side3View.blit(newView, (74 * factor), (18 * factor));
+            side3View.blit(newView, (78 * factor), (18 * factor));
 
-            g.drawImage(side4Image, (70 * factor), (19 * factor), null);
-            g.drawImage(side4Image, (75 * factor), (19 * factor), null);
-            g.drawImage(side4Image, (76 * factor), (19 * factor), null);
-            g.drawImage(side4Image, (81 * factor), (19 * factor), null);
+            side4View.blit(newView, (70 * factor), (19 * factor));
+            side4View.blit(newView, (75 * factor), (19 * factor));
+            side4View.blit(newView, (76 * factor), (19 * factor));
+            side4View.blit(newView, (81 * factor), (19 * factor));
 
-            g.drawImage(side3Image, (70 * factor), (23 * factor), null);
-            g.drawImage(side3Image, (74 * factor), (23 * factor), null);
-            g.drawImage(side3Image, (78 * factor), (23 * factor), null);
+            side3View.blit(newView, (70 * factor), (23 * factor));
+            side3View.blit(newView, (74 * factor), (23 * factor));
+            side3View.blit(newView, (78 * factor), (23 * factor));
 
             // Arm bottom
-            g.drawImage(side3Image, (64 * factor), (24 * factor), null);
-            g.drawImage(side3Image, (68 * factor), (24 * factor), null);
-            g.drawImage(side3Image, (72 * factor), (24 * factor), null);
-            g.drawImage(side3Image, (76 * factor), (24 * factor), null);
-            g.drawImage(side3Image, (80 * factor), (24 * factor), null);
-            g.drawImage(side3Image, (84 * factor), (24 * factor), null);
-
-            g.drawImage(side4Image, (64 * factor), (25 * factor), null);
-            g.drawImage(side4Image, (64 * factor), (29 * factor), null);
-            g.drawImage(side4Image, (69 * factor), (25 * factor), null);
-            g.drawImage(side4Image, (69 * factor), (29 * factor), null);
-            g.drawImage(side4Image, (70 * factor), (25 * factor), null);
-            g.drawImage(side4Image, (70 * factor), (29 * factor), null);
-            g.drawImage(side4Image, (75 * factor), (25 * factor), null);
-            g.drawImage(side4Image, (75 * factor), (29 * factor), null);
-            g.drawImage(side4Image, (76 * factor), (25 * factor), null);
-            g.drawImage(side4Image, (76 * factor), (29 * factor), null);
-            g.drawImage(side4Image, (81 * factor), (25 * factor), null);
-            g.drawImage(side4Image, (81 * factor), (29 * factor), null);
-            g.drawImage(side4Image, (82 * factor), (25 * factor), null);
-            g.drawImage(side4Image, (82 * factor), (29 * factor), null);
-            g.drawImage(side4Image, (87 * factor), (25 * factor), null);
-            g.drawImage(side4Image, (87 * factor), (29 * factor), null);
-
-            g.drawImage(side5Image, (65 * factor), (25 * factor), null);
-            g.drawImage(side5Image, (65 * factor), (29 * factor), null);
-            g.drawImage(side5Image, (71 * factor), (25 * factor), null);
-            g.drawImage(side5Image, (71 * factor), (29 * factor), null);
-            g.drawImage(side5Image, (77 * factor), (25 * factor), null);
-            g.drawImage(side5Image, (77 * factor), (29 * factor), null);
-            g.drawImage(side5Image, (83 * factor), (25 * factor), null);
-            g.drawImage(side5Image, (83 * factor), (29 * factor), null);
-
-            ImageUtils.write(newImage, "png", storage.resolve(to).toFile());
+            side3View.blit(newView, (64 * factor), (24 * factor));
+            side3View.blit(newView, (68 * factor), (24 * factor));
+            side3View.blit(newView, (72 * factor), (24 * factor));
+            side3View.blit(newView, (76 * factor), (24 * factor));
+            side3View.blit(newView, (80 * factor), (24 * factor));
+            side3View.blit(newView, (84 * factor), (24 * factor));
+
+            side4View.blit(newView, (64 * factor), (25 * factor));
+            side4View.blit(newView, (64 * factor), (29 * factor));
+            side4View.blit(newView, (69 * factor), (25 * factor));
+            side4View.blit(newView, (69 * factor), (29 * factor));
+            side4View.blit(newView, (70 * factor), (25 * factor));
+            side4View.blit(newView, (70 * factor), (29 * factor));
+            side4View.blit(newView, (75 * factor), (25 * factor));
+            side4View.blit(newView, (75 * factor), (29 * factor));
+            side4View.blit(newView, (76 * factor), (25 * factor));
+            side4View.blit(newView, (76 * factor), (29 * factor));
+            side4View.blit(newView, (81 * factor), (25 * factor));
+            side4View.blit(newView, (81 * factor), (29 * factor));
+            side4View.blit(newView, (82 * factor), (25 * factor));
+            side4View.blit(newView, (82 * factor), (29 * factor));
+            side4View.blit(newView, (87 * factor), (25 * factor));
+            side4View.blit(newView, (87 * factor), (29 * factor));
+
+            side5View.blit(newView, (65 * factor), (25 * factor));
+            side5View.blit(newView, (65 * factor), (29 * factor));
+            side5View.blit(newView, (71 * factor), (25 * factor));
+            side5View.blit(newView, (71 * factor), (29 * factor));
+            side5View.blit(newView, (77 * factor), (25 * factor));
+            side5View.blit(newView, (77 * factor), (29 * factor));
+            side5View.blit(newView, (83 * factor), (25 * factor));
+            side5View.blit(newView, (83 * factor), (29 * factor));
+
+            writeImage(newImage, "png", to);
         } catch (IOException e) { }
 
         return delete;
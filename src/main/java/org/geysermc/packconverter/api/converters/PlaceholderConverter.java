@@ -28,15 +28,14 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class PlaceholderConverter extends AbstractConverter {
@@ -126,7 +125,7 @@ public class PlaceholderConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/zombie/zombie.png", 0, 0, 64, 32, 64, "textures/entity/zombie/zombie.png", 2});
     }
 
-    public PlaceholderConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public PlaceholderConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -147,15 +146,13 @@ public class PlaceholderConverter extends AbstractConverter {
                 // TODO: Add support for min pack format
             }
 
-            File placeholderFile = storage.resolve(from).toFile();
-
-            if (!placeholderFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Create placeholder %s", to));
 
-            BufferedImage placeholderImage = ImageUtils.ensureMinWidth(ImageIO.read(placeholderFile), factorDetect);
+            BufferedImage placeholderImage = ImageUtils.ensureMinWidth(readImage(from), factorDetect);
 
             int factor = placeholderImage.getWidth() / factorDetect;
 
@@ -189,9 +186,19 @@ public class PlaceholderConverter extends AbstractConverter {
                     placeholderImage = newPlaceholderImage;
             }
 
-            ImageUtils.write(placeholderImage, "png", storage.resolve(to).toFile());
+            writeImage(placeholderImage, "png", to);
         } catch (IOException e) { }
 
         return new ArrayList<>();
     }
+
+    @Override
+    public List<String> getReadPaths() {
+        return Collections.singletonList((String) this.data[0]);
+    }
+
+    @Override
+    public List<String> getWritePaths() {
+        return Collections.singletonList((String) this.data[6]);
+    }
 }
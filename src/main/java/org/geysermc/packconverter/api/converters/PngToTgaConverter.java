@@ -28,16 +28,13 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
-import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 public class PngToTgaConverter extends AbstractConverter {
 
@@ -196,7 +193,7 @@ public class PngToTgaConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/models/armor/leather_2.png", "textures/models/armor/leather_2.tga"});
     }
 
-    public PngToTgaConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public PngToTgaConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -209,16 +206,13 @@ public class PngToTgaConverter extends AbstractConverter {
             String to = (String) this.data[1];
             boolean dont_delete = this.data.length > 2 ? (boolean) this.data[2] : false;
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return delete;
             }
 
             packConverter.log(String.format("Create tga %s", from));
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
-            ImageUtils.write(fromImage, "tga", storage.resolve(to).toFile());
+            transformImage(from, to, "tga", UnaryOperator.identity());
 
             if (!dont_delete) {
                 delete.add(new DeleteConverter(packConverter, storage, new Object[] {from}));
@@ -227,4 +221,14 @@ public class PngToTgaConverter extends AbstractConverter {
 
         return delete;
     }
+
+    @Override
+    public List<String> getReadPaths() {
+        return Collections.singletonList((String) this.data[0]);
+    }
+
+    @Override
+    public List<String> getWritePaths() {
+        return Collections.singletonList((String) this.data[1]);
+    }
 }
@@ -28,14 +28,12 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,7 +46,7 @@ public class RedstoneDustConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/blocks/redstone_dust_dot.png", "textures/blocks/redstone_dust_line0.png", "textures/blocks/redstone_dust_line1.png", "textures/blocks/redstone_dust_cross.png", "textures/blocks/redstone_dust_line.png"});
     }
 
-    public RedstoneDustConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public RedstoneDustConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -63,31 +61,27 @@ public class RedstoneDustConverter extends AbstractConverter {
             String to_cross = (String) this.data[3];
             String to_line = (String) this.data[4];
 
-            File dotFile = storage.resolve(dot).toFile();
-            File line0File = storage.resolve(line0).toFile();
-            File line1File = storage.resolve(line1).toFile();
-
-            if (!dotFile.exists() || !line0File.exists() || !line1File.exists()) {
+            if (!storage.exists(dot) || !storage.exists(line0) || !storage.exists(line1)) {
                 return delete;
             }
 
             packConverter.log("Convert redstone dust");
 
-            BufferedImage newImage = ImageIO.read(line0File);
+            BufferedImage newImage = readImage(line0);
             newImage = ImageUtils.rotate(newImage, 90);
-            ImageUtils.write(newImage, "png", storage.resolve(to_line).toFile());
+            writeImage(newImage, "png", to_line);
 
-            BufferedImage line1Image = ImageIO.read(line1File);
+            BufferedImage line1Image = readImage(line1);
             if (ImageUtils.isEmptyArea(line1Image, 0, 0, line1Image.getWidth(), (line1Image.getHeight() / 16))) {
                 line1Image = ImageUtils.rotate(line1Image, 90);
             }
             newImage.getGraphics().drawImage(line1Image, 0, 0, null);
 
 
-            BufferedImage dotImage = ImageIO.read(dotFile);
+            BufferedImage dotImage = readImage(dot);
             newImage.getGraphics().drawImage(dotImage, 0, 0, null);
 
-            ImageUtils.write(newImage, "png", storage.resolve(to_cross).toFile());
+            writeImage(newImage, "png", to_cross);
 
             delete.add(new DeleteConverter(packConverter, storage, new Object[] {dot}));
             delete.add(new DeleteConverter(packConverter, storage, new Object[] {line0}));
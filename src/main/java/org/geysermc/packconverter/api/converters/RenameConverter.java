@@ -28,13 +28,14 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
+import org.geysermc.packconverter.api.filesystem.RenamePlan;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public class RenameConverter extends AbstractConverter {
 
@@ -1060,27 +1061,65 @@ public class RenameConverter extends AbstractConverter {
         defaultData.add(new String[] {"textures/entity/zombie_villager2/professions/mason.png", "textures/entity/zombie_villager2/professions/stonemason.png"});
     }
 
-    public RenameConverter(PackConverter packConverter, Path storage, Object[] data) {
+    /**
+     * All the rename rules compiled once, entries are renamed with this while the pack is extracted
+     */
+    @Getter
+    private static final RenamePlan plan = RenamePlan.compile(defaultData);
+
+    private final RenamePlan renamePlan;
+
+    public RenameConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
+        this.renamePlan = RenamePlan.compile(Collections.singletonList(data));
+    }
+
+    /**
+     * Create a converter that applies a whole plan
+     *
+     * @param packConverter Converter the pack belongs to
+     * @param storage Storage of the pack
+     * @param renamePlan Plan to apply
+     */
+    public RenameConverter(PackConverter packConverter, PackFileSystem storage, RenamePlan renamePlan) {
+        super(packConverter, storage, new Object[0]);
+        this.renamePlan = renamePlan;
+    }
+
+    /**
+     * Get the data for a single converter that applies the whole plan
+     *
+     * @return A single row without any paths
+     */
+    public static List<Object[]> getPlanData() {
+        return Collections.singletonList(new Object[0]);
     }
 
     @Override
     public List<AbstractConverter> convert() {
+        // Entries are already renamed during extraction, so this only moves files
+        // that were somewhere else at that point, like a pack in the wrong root folder
         try {
-            String from = (String) this.data[0];
-            String to = (String) this.data[1];
-
-            Path fromPath = storage.resolve(from);
+            for (Map.Entry<String, String> rename : renamePlan.renameAll(storage.list("")).entrySet()) {
+                try {
+                    packConverter.log(String.format("Rename %s to %s", rename.getKey(), rename.getValue()));
 
-            if (!fromPath.toFile().exists()) {
-                return new ArrayList<>();
+                    storage.move(rename.getKey(), rename.getValue());
+                } catch (IOException e) { }
             }
-
-            packConverter.log(String.format("Rename %s to %s", from, to));
-
-            Files.move(fromPath, storage.resolve(to));
         } catch (IOException e) { }
 
         return new ArrayList<>();
     }
+
+    @Override
+    public List<String> getReadPaths() {
+        // Can rename anything in the pack
+        return null;
+    }
+
+    @Override
+    public List<String> getWritePaths() {
+        return null;
+    }
 }
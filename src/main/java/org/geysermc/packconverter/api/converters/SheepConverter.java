@@ -28,14 +28,12 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,7 +46,7 @@ public class SheepConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/sheep/sheep.png", "textures/entity/sheep/sheep_fur.png"});
     }
 
-    public SheepConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public SheepConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -60,17 +58,14 @@ public class SheepConverter extends AbstractConverter {
             String sheep = (String) this.data[0];
             String sheepFur = (String) this.data[1];
 
-            File sheepFile = storage.resolve(sheep).toFile();
-            File sheepFurFile = storage.resolve(sheepFur).toFile();
-
-            if (!sheepFile.exists() || !sheepFurFile.exists()) {
+            if (!storage.exists(sheep) || !storage.exists(sheepFur)) {
                 return delete;
             }
 
             packConverter.log("Convert sheep");
 
-            BufferedImage sheepImage = ImageIO.read(sheepFile);
-            BufferedImage sheepFurImage = ImageIO.read(sheepFurFile);
+            BufferedImage sheepImage = readImage(sheep);
+            BufferedImage sheepFurImage = readImage(sheepFur);
 
             int width = Math.max(sheepImage.getWidth(), sheepFurImage.getWidth());
             sheepImage = ImageUtils.ensureMinWidth(sheepImage, width);
@@ -93,7 +88,7 @@ public class SheepConverter extends AbstractConverter {
                 }
             }
 
-            ImageUtils.write(newImage, "png", sheepFile);
+            writeImage(newImage, "png", sheep);
 
             delete.add(new DeleteConverter(packConverter, storage, new Object[] {sheepFur}));
         } catch (IOException e) { }
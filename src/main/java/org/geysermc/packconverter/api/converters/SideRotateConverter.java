@@ -28,14 +28,11 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -50,7 +47,7 @@ public class SideRotateConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/blocks/seagrass_doubletall_bottom_a.png", "textures/blocks/seagrass_doubletall_bottom_b.png"});
     }
 
-    public SideRotateConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public SideRotateConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -60,19 +57,13 @@ public class SideRotateConverter extends AbstractConverter {
             String from = (String) this.data[0];
             String to = (String) this.data[1];
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Create side rotate %s", from));
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
-
-            fromImage = ImageUtils.flip(fromImage, true, false);
-
-            ImageUtils.write(fromImage, "png", storage.resolve(to).toFile());
+            transformImage(from, to, "png", fromImage -> ImageUtils.flip(fromImage, true, false));
         } catch (IOException e) { }
 
         return new ArrayList<>();
@@ -28,14 +28,12 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -269,7 +267,7 @@ public class SpriteConverter extends AbstractConverter {
         }, "textures/particle/soul.png"});
     }
 
-    public SpriteConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public SpriteConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -284,16 +282,14 @@ public class SpriteConverter extends AbstractConverter {
             String to = (String) this.data[3];
             int additional_factor = this.data.length > 4 ? (int) this.data[4] : 1;
 
-            File toFile = storage.resolve(to).toFile();
-
             BufferedImage newImage = null;
             int factor = 0;
             List<String> missingSprites = new ArrayList<>();
 
-            if (toFile.exists()) {
+            if (storage.exists(to)) {
                 packConverter.log(String.format("Convert sprite %s", to));
 
-                newImage = ImageIO.read(toFile); // Load already exists sprites image - Some texture packs have may a mix with sprites (1.13) and separate images (1.14)
+                newImage = readImage(to); // Load already exists sprites image - Some texture packs have may a mix with sprites (1.13) and separate images (1.14)
 
                 factor = (newImage.getWidth() / width);
             }
@@ -305,14 +301,12 @@ public class SpriteConverter extends AbstractConverter {
                 int y = (int) spriteArr[2];
                 int factorDetect = (int) spriteArr[3];
 
-                File spriteFile = storage.resolve(spritePath).toFile();
-
-                if (!spriteFile.exists()) {
+                if (!storage.exists(spritePath)) {
                     missingSprites.add(spritePath);
                     continue;
                 }
 
-                BufferedImage imageSprite = ImageIO.read(spriteFile);
+                BufferedImage imageSprite = readImage(spritePath);
 
                 if (factor == 0) {
                     factor = (imageSprite.getWidth() / factorDetect * additional_factor); // Take the factor of the first image
@@ -341,7 +335,7 @@ public class SpriteConverter extends AbstractConverter {
                     packConverter.log(String.format("Missing texture %s - May used a transparent image", sprite));
                 }
 
-                ImageUtils.write(newImage, "png", storage.resolve(to).toFile());
+                writeImage(newImage, "png", to);
             }
         } catch (IOException e) { }
 
@@ -28,15 +28,14 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.utils.TextureLayout;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class TitleConverter extends AbstractConverter {
@@ -48,7 +47,11 @@ public class TitleConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/gui/title/minecraft.png", "textures/ui/title.png"});
     }
 
-    public TitleConverter(PackConverter packConverter, Path storage, Object[] data) {
+    private static final TextureLayout LAYOUT = new TextureLayout()
+            .copy(0, 0, 155, 45, 0, 0)
+            .copy(0, 45, 119, 45, 154, 0);
+
+    public TitleConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -58,29 +61,34 @@ public class TitleConverter extends AbstractConverter {
             String from = (String) this.data[0];
             String to = (String) this.data[1];
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Convert title %s", from));
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
+            BufferedImage fromImage = readImage(from);
 
             int factor = fromImage.getWidth() / 255;
 
             BufferedImage newImage = new BufferedImage((273 * factor), (45 * factor), BufferedImage.TYPE_INT_ARGB);
-            Graphics g = newImage.getGraphics();
-
-            g.drawImage(ImageUtils.crop(fromImage, 0, 0, (155 * factor), (45 * factor)), 0, 0, null);
-            g.drawImage(ImageUtils.crop(fromImage, 0, (45 * factor), (119 * factor), (45 * factor)), (154 * factor), 0, null);
+            LAYOUT.apply(newImage, factor, fromImage);
 
             newImage = ImageUtils.ensureMinHeight(newImage, 360);
 
-            ImageUtils.write(newImage, "png", storage.resolve(to).toFile());
+            writeImage(newImage, "png", to);
         } catch (IOException e) { }
 
         return new ArrayList<>();
     }
+
+    @Override
+    public List<String> getReadPaths() {
+        return Collections.singletonList((String) this.data[0]);
+    }
+
+    @Override
+    public List<String> getWritePaths() {
+        return Collections.singletonList((String) this.data[1]);
+    }
 }
@@ -28,14 +28,11 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
-import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
+import org.geysermc.packconverter.api.utils.RasterView;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,7 +45,7 @@ public class TurtleConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/sea_turtle.png"});
     }
 
-    public TurtleConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public TurtleConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -57,24 +54,20 @@ public class TurtleConverter extends AbstractConverter {
         try {
             String from = (String) this.data[0];
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Convert turtle %s", from));
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
+            BufferedImage fromImage = readImage(from);
 
             int factor = fromImage.getWidth() / 128;
 
             BufferedImage newImage = new BufferedImage(fromImage.getWidth(), fromImage.getHeight(), BufferedImage.TYPE_INT_ARGB);
-            Graphics g = newImage.getGraphics();
-
-            g.drawImage(ImageUtils.crop(fromImage, factor, 0, (fromImage.getWidth() - factor), fromImage.getHeight()), 0, 0, null);
+            RasterView.of(fromImage).region(factor, 0, (fromImage.getWidth() - factor), fromImage.getHeight()).blit(RasterView.of(newImage), 0, 0);
 
-            ImageUtils.write(newImage, "png", fromFile);
+            writeImage(newImage, "png", from);
         } catch (IOException e) { }
 
         return new ArrayList<>();
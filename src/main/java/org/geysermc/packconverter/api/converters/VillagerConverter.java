@@ -28,14 +28,13 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
-import org.geysermc.packconverter.api.utils.ImageUtils;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
+import org.geysermc.packconverter.api.utils.PixelKernels;
+import org.geysermc.packconverter.api.utils.RasterUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -76,7 +75,7 @@ public class VillagerConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/entity/zombie_villager2/professions/weaponsmith.png"});
     }
 
-    public VillagerConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public VillagerConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -85,32 +84,21 @@ public class VillagerConverter extends AbstractConverter {
         try {
             String from = (String) this.data[0];
 
-            File fromFile = storage.resolve(from).toFile();
-
-            if (!fromFile.exists()) {
+            if (!storage.exists(from)) {
                 return new ArrayList<>();
             }
 
             packConverter.log(String.format("Convert villager %s", from));
 
-            BufferedImage fromImage = ImageIO.read(fromFile);
-
-            BufferedImage newImage = new BufferedImage(fromImage.getWidth(), fromImage.getHeight(), BufferedImage.TYPE_INT_ARGB);
-            Graphics g = newImage.getGraphics();
-
             Color blank = new Color(255, 255, 255, 0);
-            for (int x = 0; x < newImage.getWidth(); x++) {
-                for (int y = 0; y < newImage.getHeight(); y++) {
-                    Color c = new Color(fromImage.getRGB(x, y), true);
-                    if (c.getAlpha() == 0) {
-                        newImage.setRGB(x, y, blank.getRGB());
-                    } else {
-                        newImage.setRGB(x, y, c.getRGB());
-                    }
+            transformImage(from, from, "png", fromImage -> {
+                BufferedImage newImage = RasterUtils.createImage(fromImage.getWidth(), fromImage.getHeight());
+                if (!PixelKernels.replaceTransparent(RasterUtils.getPixels(fromImage), RasterUtils.getData(newImage), blank.getRGB())) {
+                    return fromImage;
                 }
-            }
 
-            ImageUtils.write(newImage, "png", fromFile);
+                return newImage;
+            });
         } catch (IOException e) { }
 
         return new ArrayList<>();
@@ -28,14 +28,11 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -51,7 +48,7 @@ public class WaterConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/blocks/water_still_grey.png", "textures/blocks/water_still_grey.png", 16, true});
     }
 
-    public WaterConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public WaterConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -65,23 +62,19 @@ public class WaterConverter extends AbstractConverter {
             int minWidth = (int) this.data[2];
             boolean grayscale = this.data.length > 3 ? (boolean) this.data[3] : false;
 
-            File waterFile = storage.resolve(from).toFile();
-
-            if (!waterFile.exists()) {
+            if (!storage.exists(from)) {
                 return delete;
             }
 
             packConverter.log(String.format("Convert water %s", from));
 
-            BufferedImage waterImage = ImageIO.read(waterFile);
-
-            if (grayscale) {
-                waterImage = ImageUtils.grayscale(waterImage);
-            }
-
-            waterImage = ImageUtils.ensureMinWidth(waterImage, minWidth);
+            transformImage(from, to, "png", waterImage -> {
+                if (grayscale) {
+                    waterImage = ImageUtils.grayscale(waterImage);
+                }
 
-            ImageUtils.write(waterImage, "png", storage.resolve(to).toFile());
+                return ImageUtils.ensureMinWidth(waterImage, minWidth);
+            }, minWidth, grayscale);
         } catch (IOException e) { }
 
         return new ArrayList<>();
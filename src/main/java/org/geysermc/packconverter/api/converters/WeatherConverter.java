@@ -28,14 +28,12 @@ package org.geysermc.packconverter.api.converters;
 
 import lombok.Getter;
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 import org.geysermc.packconverter.api.utils.ImageUtils;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -49,7 +47,7 @@ public class WeatherConverter extends AbstractConverter {
         defaultData.add(new Object[] {"textures/environment/snow.png", "textures/environment/rain.png", "textures/environment/weather.png"});
     }
 
-    public WeatherConverter(PackConverter packConverter, Path storage, Object[] data) {
+    public WeatherConverter(PackConverter packConverter, PackFileSystem storage, Object[] data) {
         super(packConverter, storage, data);
     }
 
@@ -62,17 +60,14 @@ public class WeatherConverter extends AbstractConverter {
             String rain = (String) this.data[1];
             String to = (String) this.data[2];
 
-            File snowFile = storage.resolve(snow).toFile();
-            File rainFile = storage.resolve(rain).toFile();
-
-            if (!snowFile.exists() || !rainFile.exists()) {
+            if (!storage.exists(snow) || !storage.exists(rain)) {
                 return delete;
             }
 
             packConverter.log("Convert weather");
 
-            BufferedImage snowImage = ImageIO.read(snowFile);
-            BufferedImage rainImage = ImageIO.read(rainFile);
+            BufferedImage snowImage = readImage(snow);
+            BufferedImage rainImage = readImage(rain);
 
             int factor = snowImage.getWidth() / 64;
 
@@ -90,7 +85,7 @@ public class WeatherConverter extends AbstractConverter {
 
             delete.add(new DeleteConverter(packConverter, storage, new Object[] {rain}));
 
-            ImageUtils.write(weatherImage, "png", storage.resolve(to).toFile());
+            writeImage(weatherImage, "png", to);
         } catch (IOException e) { }
 
         return new ArrayList<>();
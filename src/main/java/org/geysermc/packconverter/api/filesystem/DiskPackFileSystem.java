@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.filesystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Stores the pack in a folder on disk
+ */
+public class DiskPackFileSystem implements PackFileSystem {
+
+    private final Path root;
+
+    public DiskPackFileSystem(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public String getName() {
+        return root.getFileName().toString();
+    }
+
+    @Override
+    public boolean exists(String path) {
+        return resolve(path).toFile().exists();
+    }
+
+    @Override
+    public boolean isDirectory(String path) {
+        return resolve(path).toFile().isDirectory();
+    }
+
+    @Override
+    public byte[] read(String path) throws IOException {
+        return Files.readAllBytes(resolve(path));
+    }
+
+    @Override
+    public void write(String path, byte[] data) throws IOException {
+        Path file = resolve(path);
+        file.getParent().toFile().mkdirs();
+        Files.write(file, data);
+    }
+
+    @Override
+    public OutputStream openOutput(String path) throws IOException {
+        return Files.newOutputStream(resolve(path));
+    }
+
+    @Override
+    public void createDirectory(String path) throws IOException {
+        Files.createDirectories(resolve(path));
+    }
+
+    @Override
+    public void move(String from, String to) throws IOException {
+        Path fromPath = resolve(from);
+        Path toPath = resolve(to);
+
+        if (fromPath.toFile().isDirectory() && toPath.toFile().exists()) {
+            // Merge into the existing directory, leaving any conflicting files behind
+            for (String file : list(from)) {
+                Path target = toPath.resolve(fromPath.relativize(resolve(file)));
+                if (!target.toFile().exists()) {
+                    target.getParent().toFile().mkdirs();
+                    Files.move(resolve(file), target);
+                }
+            }
+            return;
+        }
+
+        toPath.getParent().toFile().mkdirs();
+        Files.move(fromPath, toPath);
+    }
+
+    @Override
+    public void copy(String from, String to) throws IOException {
+        Path toPath = resolve(to);
+        toPath.getParent().toFile().mkdirs();
+        Files.copy(resolve(from), toPath);
+    }
+
+    @Override
+    public void delete(String path) throws IOException {
+        File file = resolve(path).toFile();
+        if (file.isDirectory()) {
+            deleteDirectory(file);
+        } else {
+            Files.delete(file.toPath());
+        }
+    }
+
+    @Override
+    public List<String> list(String directory) throws IOException {
+        Path directoryPath = resolve(directory);
+        if (!directoryPath.toFile().isDirectory()) {
+            return new ArrayList<>();
+        }
+
+        try (Stream<Path> paths = Files.walk(directoryPath)) {
+            return paths.filter(Files::isRegularFile)
+                    .map(file -> root.relativize(file).toString().replace(File.separatorChar, '/'))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path resolve(String path) {
+        return root.resolve(PackFileSystem.normalize(path));
+    }
+
+    private void deleteDirectory(File directoryToBeDeleted) {
+        File[] allContents = directoryToBeDeleted.listFiles();
+        if (allContents != null) {
+            for (File file : allContents) {
+                deleteDirectory(file);
+            }
+        }
+        directoryToBeDeleted.delete();
+    }
+}
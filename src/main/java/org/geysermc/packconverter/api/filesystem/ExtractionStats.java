@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.filesystem;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Throughput of a single pack extraction
+ */
+@Getter
+@AllArgsConstructor
+public class ExtractionStats {
+
+    private final int entries;
+    private final long bytes;
+    private final long nanos;
+
+    public double getEntriesPerSecond() {
+        return nanos == 0 ? 0 : entries / (nanos / 1_000_000_000d);
+    }
+
+    public double getMegabytesPerSecond() {
+        return nanos == 0 ? 0 : (bytes / (1024d * 1024d)) / (nanos / 1_000_000_000d);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Extracted %d entries (%.2f MB) in %d ms, %.0f entries/s, %.2f MB/s",
+                entries, bytes / (1024d * 1024d), nanos / 1_000_000, getEntriesPerSecond(), getMegabytesPerSecond());
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.filesystem;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Wraps another storage and keeps a {@link PackIndex} of its files up to date,
+ * existence checks are then answered from the index without touching the storage
+ *
+ * Listeners are told about every file that is written, replaced, moved away or deleted
+ *
+ * Files can also be written deferred, they then only exist in the index until their
+ * contents are needed, or until {@link #flush()} is called before the pack is written
+ */
+public class IndexedPackFileSystem implements PackFileSystem {
+
+    private final PackFileSystem storage;
+
+    @Getter
+    private final PackIndex index = new PackIndex();
+
+    private final List<Consumer<String>> changeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Files that were written deferred, a file stays here until its contents are in the storage
+     */
+    private final Map<String, Deferred> pending = new ConcurrentHashMap<>();
+
+    public IndexedPackFileSystem(PackFileSystem storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Add a listener that is called with the path of every file that changes
+     *
+     * @param listener Listener to add
+     */
+    public void addChangeListener(Consumer<String> listener) {
+        changeListeners.add(listener);
+    }
+
+    @Override
+    public String getName() {
+        return storage.getName();
+    }
+
+    @Override
+    public boolean exists(String path) {
+        return index.exists(PackFileSystem.normalize(path));
+    }
+
+    @Override
+    public boolean isDirectory(String path) {
+        return index.isDirectory(PackFileSystem.normalize(path));
+    }
+
+    @Override
+    public byte[] read(String path) throws IOException {
+        flush(path);
+        return storage.read(path);
+    }
+
+    @Override
+    public void write(String path, byte[] data) throws IOException {
+        String key = PackFileSystem.normalize(path);
+        discard(pending.remove(key));
+        storage.write(path, data);
+        added(key);
+    }
+
+    /**
+     * Write a file without creating its contents yet, the encoder is called
+     * the first time the contents are needed
+     *
+     * @param path File to write
+     * @param encoder Creates the file contents, if it returns null the file is dropped
+     */
+    public void writeDeferred(String path, Callable<byte[]> encoder) {
+        String key = PackFileSystem.normalize(path);
+        discard(pending.put(key, new Deferred(key, encoder)));
+        added(key);
+    }
+
+    /**
+     * Check if a file was written deferred and hasn't been encoded yet
+     *
+     * @param path File to check
+     * @return True if the contents of the file don't exist yet
+     */
+    public boolean isPending(String path) {
+        return pending.containsKey(PackFileSystem.normalize(path));
+    }
+
+    /**
+     * Write a deferred file into the storage
+     *
+     * @param path File to write
+     * @throws IOException If the contents can't be created or written
+     */
+    public void flush(String path) throws IOException {
+        String key = PackFileSystem.normalize(path);
+        Deferred file = pending.get(key);
+        if (file == null) {
+            return;
+        }
+
+        // The file stays pending until it is in the storage, so a reader always finds it in one of the two
+        try {
+            file.write();
+        } finally {
+            pending.remove(key, file);
+        }
+    }
+
+    /**
+     * Write all deferred files into the storage, encoding them in parallel
+     *
+     * @throws IOException If a file can't be created or written
+     */
+    public void flush() throws IOException {
+        try {
+            new ArrayList<>(pending.keySet()).parallelStream().forEach(path -> {
+                try {
+                    flush(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public OutputStream openOutput(String path) throws IOException {
+        String key = PackFileSystem.normalize(path);
+        discard(pending.remove(key));
+        OutputStream outStream = storage.openOutput(path);
+        added(key);
+        return outStream;
+    }
+
+    @Override
+    public void createDirectory(String path) throws IOException {
+        storage.createDirectory(path);
+    }
+
+    @Override
+    public void move(String from, String to) throws IOException {
+        String fromKey = PackFileSystem.normalize(from);
+        String toKey = PackFileSystem.normalize(to);
+
+        flushAll(fromKey);
+        flushAll(toKey);
+        storage.move(from, to);
+        if (index.isFile(fromKey)) {
+            removed(fromKey);
+            added(toKey);
+            return;
+        }
+
+        // Directories are merged, files that already exist in the target are left behind
+        String toPrefix = toKey.isEmpty() ? "" : toKey + "/";
+        int fromLength = fromKey.isEmpty() ? 0 : fromKey.length() + 1;
+        for (String file : index.list(fromKey)) {
+            String target = toPrefix + file.substring(fromLength);
+            if (!index.isFile(target)) {
+                removed(file);
+                added(target);
+            }
+        }
+    }
+
+    @Override
+    public void copy(String from, String to) throws IOException {
+        String toKey = PackFileSystem.normalize(to);
+        if (pending.containsKey(toKey)) {
+            throw new FileAlreadyExistsException(to);
+        }
+
+        flush(from);
+        storage.copy(from, to);
+        added(toKey);
+    }
+
+    @Override
+    public void delete(String path) throws IOException {
+        String key = PackFileSystem.normalize(path);
+
+        // Deferred files don't need to be encoded just to be deleted,
+        // but they might not be in the storage at all
+        String prefix = key.isEmpty() ? "" : key + "/";
+        boolean hadPending = discard(pending.remove(key));
+        for (String file : new ArrayList<>(pending.keySet())) {
+            if (file.startsWith(prefix)) {
+                hadPending |= discard(pending.remove(file));
+            }
+        }
+        if (!hadPending || storage.exists(path)) {
+            storage.delete(path);
+        }
+
+        if (index.isFile(key)) {
+            removed(key);
+        } else {
+            for (String file : index.list(key)) {
+                removed(file);
+            }
+        }
+    }
+
+    @Override
+    public List<String> list(String directory) {
+        return index.list(PackFileSystem.normalize(directory));
+    }
+
+    /**
+     * Flush a deferred file, or all the deferred files in a directory
+     *
+     * @param key Normalized path
+     * @throws IOException If a file can't be created or written
+     */
+    private void flushAll(String key) throws IOException {
+        flush(key);
+
+        String prefix = key.isEmpty() ? "" : key + "/";
+        for (String file : new ArrayList<>(pending.keySet())) {
+            if (file.startsWith(prefix)) {
+                flush(file);
+            }
+        }
+    }
+
+    /**
+     * Drop a deferred file that is being replaced or deleted
+     *
+     * @param file Deferred file, or null
+     * @return False if there was no deferred file
+     */
+    private boolean discard(Deferred file) {
+        if (file == null) {
+            return false;
+        }
+
+        file.discard();
+        return true;
+    }
+
+    private void added(String path) {
+        index.add(path);
+        changed(path);
+    }
+
+    private void removed(String path) {
+        index.remove(path);
+        changed(path);
+    }
+
+    private void changed(String path) {
+        for (Consumer<String> listener : changeListeners) {
+            listener.accept(path);
+        }
+    }
+
+    /**
+     * A file written deferred, it is encoded and written at most once
+     * Callers that need it while another thread writes it wait until it is in the storage
+     */
+    private class Deferred {
+        private final String key;
+        private final Callable<byte[]> encoder;
+        private boolean done;
+
+        private Deferred(String key, Callable<byte[]> encoder) {
+            this.key = key;
+            this.encoder = encoder;
+        }
+
+        private synchronized void write() throws IOException {
+            if (done) {
+                return;
+            }
+            done = true;
+
+            byte[] data;
+            try {
+                data = encoder.call();
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Failed to encode " + key, e);
+            }
+
+            if (data == null) {
+                removed(key);
+            } else {
+                storage.write(key, data);
+            }
+        }
+
+        /**
+         * Stop the file from being written, waits for a write that already started so it can't land after newer contents
+         */
+        private synchronized void discard() {
+            done = true;
+        }
+    }
+}
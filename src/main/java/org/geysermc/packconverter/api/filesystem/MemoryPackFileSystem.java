@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.filesystem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Keeps the whole pack in memory, each file is held as a byte buffer keyed by its path
+ */
+public class MemoryPackFileSystem implements PackFileSystem {
+
+    private final String name;
+    private final NavigableMap<String, byte[]> files = new ConcurrentSkipListMap<>();
+
+    public MemoryPackFileSystem(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean exists(String path) {
+        String key = PackFileSystem.normalize(path);
+        return files.containsKey(key) || isDirectory(key);
+    }
+
+    @Override
+    public boolean isDirectory(String path) {
+        String prefix = directoryPrefix(PackFileSystem.normalize(path));
+        String next = files.ceilingKey(prefix);
+        return next != null && next.startsWith(prefix);
+    }
+
+    @Override
+    public byte[] read(String path) throws IOException {
+        byte[] data = files.get(PackFileSystem.normalize(path));
+        if (data == null) {
+            throw new FileNotFoundException(path);
+        }
+
+        return data;
+    }
+
+    @Override
+    public void write(String path, byte[] data) {
+        files.put(PackFileSystem.normalize(path), data);
+    }
+
+    @Override
+    public OutputStream openOutput(String path) {
+        String key = PackFileSystem.normalize(path);
+        return new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                files.put(key, toByteArray());
+            }
+        };
+    }
+
+    @Override
+    public void createDirectory(String path) {
+        // Directories only exist through the files in them
+    }
+
+    @Override
+    public void move(String from, String to) throws IOException {
+        String fromKey = PackFileSystem.normalize(from);
+        String toKey = PackFileSystem.normalize(to);
+
+        byte[] data = files.get(fromKey);
+        if (data != null) {
+            if (files.containsKey(toKey)) {
+                throw new FileAlreadyExistsException(to);
+            }
+
+            files.put(toKey, data);
+            files.remove(fromKey);
+            return;
+        }
+
+        if (!isDirectory(fromKey)) {
+            throw new FileNotFoundException(from);
+        }
+
+        String fromPrefix = directoryPrefix(fromKey);
+        String toPrefix = directoryPrefix(toKey);
+        for (Map.Entry<String, byte[]> entry : new ArrayList<>(directory(fromPrefix).entrySet())) {
+            String target = toPrefix + entry.getKey().substring(fromPrefix.length());
+            if (files.putIfAbsent(target, entry.getValue()) == null) {
+                files.remove(entry.getKey());
+            }
+        }
+    }
+
+    @Override
+    public void copy(String from, String to) throws IOException {
+        String toKey = PackFileSystem.normalize(to);
+        if (files.containsKey(toKey)) {
+            throw new FileAlreadyExistsException(to);
+        }
+
+        files.put(toKey, read(from));
+    }
+
+    @Override
+    public void delete(String path) {
+        String key = PackFileSystem.normalize(path);
+        if (files.remove(key) == null) {
+            directory(directoryPrefix(key)).clear();
+        }
+    }
+
+    @Override
+    public List<String> list(String directory) {
+        return new ArrayList<>(directory(directoryPrefix(PackFileSystem.normalize(directory))).keySet());
+    }
+
+    /**
+     * Get a live view of all the files below a directory
+     *
+     * @param prefix Directory prefix, as returned by {@link #directoryPrefix(String)}
+     * @return Files in the directory
+     */
+    private NavigableMap<String, byte[]> directory(String prefix) {
+        if (prefix.isEmpty()) {
+            return files;
+        }
+
+        // '/' + 1 is '0', so this covers every key starting with the prefix
+        return files.subMap(prefix, true, prefix.substring(0, prefix.length() - 1) + '0', false);
+    }
+
+    private static String directoryPrefix(String key) {
+        return key.isEmpty() ? "" : key + "/";
+    }
+}
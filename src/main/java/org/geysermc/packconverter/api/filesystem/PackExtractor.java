@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.filesystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Extracts a pack zip into a {@link PackFileSystem} using a pool of worker threads
+ *
+ * Each worker borrows a fixed size buffer from a shared pool for the copy,
+ * and all directories are created up front so the workers only write files
+ */
+public class PackExtractor {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final int threads;
+    private final BlockingQueue<byte[]> buffers;
+
+    public PackExtractor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads Amount of entries to inflate at the same time
+     */
+    public PackExtractor(int threads) {
+        this.threads = Math.max(1, threads);
+        this.buffers = new ArrayBlockingQueue<>(this.threads);
+
+        for (int i = 0; i < this.threads; i++) {
+            buffers.add(new byte[BUFFER_SIZE]);
+        }
+    }
+
+    /**
+     * Extract all the files in the zip into the storage
+     *
+     * @param zipFile Zip to extract
+     * @param storage Storage to extract into
+     * @return Statistics about the extraction
+     * @throws IOException If an entry can't be read or written
+     */
+    public ExtractionStats extract(ZipFile zipFile, PackFileSystem storage) throws IOException {
+        return extract(zipFile, storage, null);
+    }
+
+    /**
+     * Extract all the files in the zip into the storage, renaming them on the way
+     *
+     * @param zipFile Zip to extract
+     * @param storage Storage to extract into
+     * @param renamePlan Renames to apply to the entry names, or null to keep them
+     * @return Statistics about the extraction
+     * @throws IOException If an entry can't be read or written
+     */
+    public ExtractionStats extract(ZipFile zipFile, PackFileSystem storage, RenamePlan renamePlan) throws IOException {
+        return extract(zipFile, storage, renamePlan, null, null);
+    }
+
+    /**
+     * Extract the files in the zip that pass the filter into the storage, renaming them on the way
+     *
+     * @param zipFile Zip to extract
+     * @param storage Storage to extract into
+     * @param renamePlan Renames to apply to the entry names, or null to keep them
+     * @param filter Filter for the renamed paths of the entries to extract, or null to extract everything
+     * @param skipped Map to put the entries that didn't pass the filter in, by their renamed path
+     * @return Statistics about the extraction
+     * @throws IOException If an entry can't be read or written
+     */
+    public ExtractionStats extract(ZipFile zipFile, PackFileSystem storage, RenamePlan renamePlan, Predicate<String> filter, Map<String, ZipEntry> skipped) throws IOException {
+        long start = System.nanoTime();
+
+        List<ZipEntry> files = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+
+        final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            if (!entry.isDirectory()) {
+                files.add(entry);
+                names.add(PackFileSystem.normalize(entry.getName()));
+            }
+        }
+
+        Map<String, String> renames = renamePlan == null ? Collections.emptyMap() : renamePlan.renameAll(names);
+        for (int i = 0; i < names.size(); i++) {
+            names.set(i, renames.getOrDefault(names.get(i), names.get(i)));
+        }
+
+        if (filter != null) {
+            List<ZipEntry> filteredFiles = new ArrayList<>();
+            List<String> filteredNames = new ArrayList<>();
+            for (int i = 0; i < names.size(); i++) {
+                if (filter.test(names.get(i))) {
+                    filteredFiles.add(files.get(i));
+                    filteredNames.add(names.get(i));
+                } else {
+                    skipped.put(names.get(i), files.get(i));
+                }
+            }
+
+            files = filteredFiles;
+            names = filteredNames;
+        }
+
+        NavigableSet<String> directories = new TreeSet<>();
+        for (String name : names) {
+            int slash = name.lastIndexOf('/');
+            directories.add(slash == -1 ? "" : name.substring(0, slash));
+        }
+
+        // Only create the deepest directories, their parents come along with them
+        Iterator<String> iterator = directories.iterator();
+        String directory = iterator.hasNext() ? iterator.next() : null;
+        while (directory != null) {
+            String next = iterator.hasNext() ? iterator.next() : null;
+            if (next == null || !next.startsWith(directory.isEmpty() ? "" : directory + "/")) {
+                storage.createDirectory(directory);
+            }
+
+            directory = next;
+        }
+
+        AtomicLong bytes = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                ZipEntry entry = files.get(i);
+                String name = names.get(i);
+                futures.add(executor.submit(() -> {
+                    bytes.addAndGet(extractEntry(zipFile, entry, name, storage));
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while extracting " + zipFile.getName());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException("Failed to extract " + zipFile.getName(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return new ExtractionStats(files.size(), bytes.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * Copy a single entry into the storage using a pooled buffer
+     *
+     * @param zipFile Zip the entry belongs to
+     * @param entry Entry to copy
+     * @param name Path to write the entry to
+     * @param storage Storage to write to
+     * @return Amount of bytes written
+     * @throws IOException If the entry can't be read or written
+     */
+    private long extractEntry(ZipFile zipFile, ZipEntry entry, String name, PackFileSystem storage) throws IOException {
+        byte[] buffer;
+        try {
+            buffer = buffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while extracting " + entry.getName());
+        }
+
+        try (InputStream inStream = zipFile.getInputStream(entry);
+             OutputStream outStream = storage.openOutput(name)) {
+            long total = 0;
+            int length;
+            while ((length = inStream.read(buffer)) != -1) {
+                outStream.write(buffer, 0, length);
+                total += length;
+            }
+
+            return total;
+        } finally {
+            buffers.add(buffer);
+        }
+    }
+}
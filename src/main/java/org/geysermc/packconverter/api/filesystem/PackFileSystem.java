@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.filesystem;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * A view of the pack contents that converters read from and write to
+ *
+ * Paths are always relative to the pack root and use forward slashes,
+ * a trailing slash is accepted for directories (eg. {@code assets/})
+ */
+public interface PackFileSystem {
+
+    /**
+     * Get the name of the storage, used as the pack name in the manifest
+     *
+     * @return Storage name
+     */
+    String getName();
+
+    /**
+     * Check if a file or directory exists
+     *
+     * @param path Path to check
+     * @return True if a file or a non empty directory exists at the path
+     */
+    boolean exists(String path);
+
+    /**
+     * Check if a path is a directory
+     *
+     * @param path Path to check
+     * @return True if the path contains at least one file
+     */
+    boolean isDirectory(String path);
+
+    /**
+     * Read the contents of a file
+     *
+     * @param path File to read
+     * @return File contents
+     * @throws IOException If the file doesn't exist or can't be read
+     */
+    byte[] read(String path) throws IOException;
+
+    /**
+     * Write the contents of a file, replacing any existing file
+     *
+     * @param path File to write
+     * @param data New file contents
+     * @throws IOException If the file can't be written
+     */
+    void write(String path, byte[] data) throws IOException;
+
+    /**
+     * Open a stream to write the contents of a file, replacing any existing file
+     * Unlike {@link #write(String, byte[])} the parent directory has to exist already
+     *
+     * @param path File to write
+     * @return Stream that writes to the file, the file is complete once it is closed
+     * @throws IOException If the file can't be opened
+     */
+    OutputStream openOutput(String path) throws IOException;
+
+    /**
+     * Create a directory and any missing parent directories
+     *
+     * @param path Directory to create
+     * @throws IOException If the directory can't be created
+     */
+    void createDirectory(String path) throws IOException;
+
+    /**
+     * Move a file or directory
+     * Directories are merged into an existing target, files are not replaced
+     *
+     * @param from Path to move
+     * @param to New path
+     * @throws IOException If the source doesn't exist or the target file already exists
+     */
+    void move(String from, String to) throws IOException;
+
+    /**
+     * Copy a file
+     *
+     * @param from File to copy
+     * @param to New path
+     * @throws IOException If the source doesn't exist or the target file already exists
+     */
+    void copy(String from, String to) throws IOException;
+
+    /**
+     * Delete a file or a directory and all of its contents
+     *
+     * @param path Path to delete
+     * @throws IOException If the path can't be deleted
+     */
+    void delete(String path) throws IOException;
+
+    /**
+     * List all files in a directory and its sub directories
+     *
+     * @param directory Directory to list, an empty string lists the whole pack
+     * @return Paths of all the files relative to the pack root
+     * @throws IOException If the directory can't be read
+     */
+    List<String> list(String directory) throws IOException;
+
+    /**
+     * Normalize a path to the form used as a key, without leading or trailing slashes
+     *
+     * @param path Path to normalize
+     * @return Normalized path
+     */
+    static String normalize(String path) {
+        String normalized = path.replace('\\', '/');
+
+        int start = 0;
+        int end = normalized.length();
+        while (start < end && normalized.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && normalized.charAt(end - 1) == '/') {
+            end--;
+        }
+
+        return normalized.substring(start, end);
+    }
+}
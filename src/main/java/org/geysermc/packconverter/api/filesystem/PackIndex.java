@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.filesystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Set of all the files in a pack, so existence checks don't need to touch the storage
+ *
+ * Every parent directory of a file is tracked with the amount of files below it,
+ * so directories are known as long as they contain at least one file
+ * Files are kept sorted, so listing a directory only visits the files inside it
+ */
+public class PackIndex {
+
+    private final NavigableSet<String> files = new ConcurrentSkipListSet<>();
+    private final Map<String, Integer> directories = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Add a file to the index
+     *
+     * @param path Normalized file path
+     */
+    public void add(String path) {
+        if (files.add(path)) {
+            for (String directory : parents(path)) {
+                directories.merge(directory, 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Remove a file from the index
+     *
+     * @param path Normalized file path
+     */
+    public void remove(String path) {
+        if (files.remove(path)) {
+            for (String directory : parents(path)) {
+                directories.computeIfPresent(directory, (key, count) -> count == 1 ? null : count - 1);
+            }
+        }
+    }
+
+    /**
+     * Check if a file or directory exists, counting the lookup as a hit or a miss
+     *
+     * @param path Normalized path
+     * @return True if a file or a non empty directory exists at the path
+     */
+    public boolean exists(String path) {
+        boolean exists = files.contains(path) || isDirectory(path);
+        (exists ? hits : misses).incrementAndGet();
+        return exists;
+    }
+
+    public boolean isFile(String path) {
+        return files.contains(path);
+    }
+
+    public boolean isDirectory(String path) {
+        return path.isEmpty() ? !files.isEmpty() : directories.containsKey(path);
+    }
+
+    /**
+     * Get all the indexed files below a directory
+     *
+     * @param directory Normalized directory path, an empty string returns all files
+     * @return Files in the directory and its sub directories, sorted by path
+     */
+    public List<String> list(String directory) {
+        List<String> result = new ArrayList<>();
+        if (!isDirectory(directory)) {
+            return result;
+        }
+
+        // Every path with the prefix sorts right after it, so the walk stops at the first one without it
+        String prefix = directory.isEmpty() ? "" : directory + "/";
+        for (String file : files.tailSet(prefix)) {
+            if (!file.startsWith(prefix)) {
+                break;
+            }
+
+            result.add(file);
+        }
+
+        return result;
+    }
+
+    public int size() {
+        return files.size();
+    }
+
+    /**
+     * @return Amount of existence checks that found a file
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return Amount of existence checks that found nothing
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static List<String> parents(String path) {
+        List<String> parents = new ArrayList<>();
+
+        int slash = path.indexOf('/');
+        while (slash != -1) {
+            parents.add(path.substring(0, slash));
+            slash = path.indexOf('/', slash + 1);
+        }
+
+        return parents;
+    }
+}
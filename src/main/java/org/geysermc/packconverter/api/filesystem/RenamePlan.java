@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.filesystem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A list of rename rules compiled into a trie of path segments
+ *
+ * Rules are applied in order: a rule matches a path that is equal to its source
+ * or inside it as a directory, and the renamed path carries on through the later rules.
+ * Renaming a path only walks the trie along its segments instead of checking every rule
+ */
+public class RenamePlan {
+
+    private final Node root = new Node();
+    private final List<Rule> rules = new ArrayList<>();
+
+    private RenamePlan() { }
+
+    /**
+     * Compile rename rules into a plan
+     *
+     * @param renames Rules as {@code {from, to}} pairs, in the order they apply
+     * @return Compiled plan
+     */
+    public static RenamePlan compile(List<Object[]> renames) {
+        RenamePlan plan = new RenamePlan();
+
+        for (Object[] rename : renames) {
+            Rule rule = new Rule(plan.rules.size(), PackFileSystem.normalize((String) rename[0]), PackFileSystem.normalize((String) rename[1]));
+            plan.rules.add(rule);
+
+            Node node = plan.root;
+            for (String segment : rule.from.split("/")) {
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+            node.rules.add(rule);
+        }
+
+        // Collapse chains, so a file renamed by a rule goes straight to its final path
+        for (int i = plan.rules.size() - 1; i >= 0; i--) {
+            Rule rule = plan.rules.get(i);
+            rule.collapsed = plan.rename(rule.to, rule.index);
+        }
+
+        return plan;
+    }
+
+    /**
+     * Get the final path of a file after all the rules
+     *
+     * @param path Normalized path of the file
+     * @return New path, or the same path if no rule matches
+     */
+    public String rename(String path) {
+        return rename(path, -1);
+    }
+
+    /**
+     * Rename all the files in a pack, files that would replace another file keep their path
+     * the same way a move onto an existing file fails
+     *
+     * @param paths Normalized paths of all the files
+     * @return Old paths mapped to their new paths, only for the files that are renamed
+     */
+    public Map<String, String> renameAll(Collection<String> paths) {
+        Map<String, String> renames = new LinkedHashMap<>();
+        for (String path : paths) {
+            String renamed = rename(path);
+            if (!renamed.equals(path)) {
+                renames.put(path, renamed);
+            }
+        }
+
+        // A dropped rename leaves its file where it is, which can block a rename that was already accepted,
+        // so check again until nothing else is dropped
+        boolean dropped = true;
+        while (dropped) {
+            Set<String> occupied = new HashSet<>(paths);
+            occupied.removeAll(renames.keySet());
+
+            dropped = renames.entrySet().removeIf(rename -> !occupied.add(rename.getValue()));
+        }
+
+        return renames;
+    }
+
+    private String rename(String path, int after) {
+        String current = path;
+
+        Rule rule;
+        while ((rule = next(current, after)) != null) {
+            if (current.length() == rule.from.length()) {
+                // An exact match already knows the rest of its chain
+                return rule.collapsed;
+            }
+
+            current = rule.to + current.substring(rule.from.length());
+            after = rule.index;
+        }
+
+        return current;
+    }
+
+    /**
+     * Find the first rule after the given index that matches the path
+     *
+     * @param path Path to match
+     * @param after Index of the last applied rule
+     * @return Matching rule or null
+     */
+    private Rule next(String path, int after) {
+        Rule first = null;
+
+        Node node = root;
+        int start = 0;
+        while (node != null && start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end == -1) {
+                end = path.length();
+            }
+
+            node = node.children.get(path.substring(start, end));
+            if (node != null) {
+                for (Rule rule : node.rules) {
+                    if (rule.index > after && (first == null || rule.index < first.index)) {
+                        first = rule;
+                        break;
+                    }
+                }
+            }
+
+            start = end + 1;
+        }
+
+        return first;
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Rule> rules = new ArrayList<>();
+    }
+
+    private static class Rule {
+        private final int index;
+        private final String from;
+        private final String to;
+        private String collapsed;
+
+        private Rule(int index, String from, String to) {
+            this.index = index;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import lombok.Getter;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Summary of where the visible pixels of an image are
+ *
+ * Built with a single scan, after which the opaque bounding box and the emptiness of any area are known in constant time.
+ * Pixels with any alpha count as visible. The summary does not follow later changes to the image.
+ */
+public class AlphaBounds {
+
+    @Getter
+    private final int width;
+    @Getter
+    private final int height;
+
+    private final int minX;
+    private final int minY;
+    private final int maxX;
+    private final int maxY;
+
+    // Amount of visible pixels above and left of every point, one row and column bigger than the image
+    private final int[] counts;
+
+    private AlphaBounds(int width, int height, int minX, int minY, int maxX, int maxY, int[] counts) {
+        this.width = width;
+        this.height = height;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.counts = counts;
+    }
+
+    /**
+     * Scan an image
+     *
+     * @param img Image to use
+     * @return Summary of the image
+     */
+    public static AlphaBounds of(BufferedImage img) {
+        return of(RasterUtils.getPixels(img), img.getWidth());
+    }
+
+    /**
+     * Scan ARGB pixels
+     *
+     * @param pixels Pixels to read
+     * @param width Width of the pixels
+     * @return Summary of the pixels
+     */
+    public static AlphaBounds of(int[] pixels, int width) {
+        int height = width == 0 ? 0 : pixels.length / width;
+        int stride = width + 1;
+        int[] counts = new int[stride * (height + 1)];
+
+        int minX = width;
+        int minY = height;
+        int maxX = -1;
+        int maxY = -1;
+
+        for (int y = 0; y < height; y++) {
+            int rowCount = 0;
+            for (int x = 0; x < width; x++) {
+                if ((pixels[y * width + x] & 0xFF000000) != 0) {
+                    rowCount++;
+                    minX = Math.min(minX, x);
+                    maxX = Math.max(maxX, x);
+                }
+
+                counts[(y + 1) * stride + x + 1] = counts[y * stride + x + 1] + rowCount;
+            }
+
+            if (rowCount > 0) {
+                minY = Math.min(minY, y);
+                maxY = y;
+            }
+        }
+
+        return new AlphaBounds(width, height, minX, minY, maxX, maxY, counts);
+    }
+
+    /**
+     * Check if the whole image is transparent
+     *
+     * @return True if there are no visible pixels
+     */
+    public boolean isEmpty() {
+        return maxX < 0;
+    }
+
+    /**
+     * Get the smallest rectangle that holds every visible pixel
+     *
+     * @return The bounding box, or null if the image is empty
+     */
+    public Rectangle getBounds() {
+        if (isEmpty()) {
+            return null;
+        }
+
+        return new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1);
+    }
+
+    /**
+     * Check if a given area is empty, the parts outside of the image count as empty
+     *
+     * @param x Start X
+     * @param y Start Y
+     * @param areaWidth Check width
+     * @param areaHeight Check height
+     * @return True if the area is empty
+     */
+    public boolean isEmptyArea(int x, int y, int areaWidth, int areaHeight) {
+        int left = Math.max(x, minX);
+        int top = Math.max(y, minY);
+        int right = Math.min(x + areaWidth, maxX + 1);
+        int bottom = Math.min(y + areaHeight, maxY + 1);
+        if (left >= right || top >= bottom) {
+            return true;
+        }
+
+        int stride = width + 1;
+        return counts[bottom * stride + right] - counts[top * stride + right]
+                - counts[bottom * stride + left] + counts[top * stride + left] == 0;
+    }
+}
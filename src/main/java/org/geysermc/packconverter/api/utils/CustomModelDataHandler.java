@@ -32,15 +32,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.nukkitx.nbt.NbtMap;
 import com.nukkitx.nbt.NbtMapBuilder;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 
 import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 
 public class CustomModelDataHandler {
 
-    public static CustomModelData handleItemData(ObjectMapper mapper, Path storage, String originalItemName, String filePath, JsonNode itemJsonInfo, JsonNode predicate) {
+    public static CustomModelData handleItemData(ObjectMapper mapper, PackFileSystem storage, String originalItemName, String filePath, JsonNode itemJsonInfo, JsonNode predicate) {
         // Start the creation of the JSON that registers the object
         ObjectNode item = mapper.createObjectNode();
         // Standard JSON
@@ -84,17 +82,10 @@ public class CustomModelDataHandler {
         itemComponent.put("minecraft:icon", identifier.replace("geysercmd:", ""));
         itemData.set("components", itemComponent);
 
-        // Create, if necessary, the folder that stores all item information
-        File itemJsonPath = storage.resolve("items").toFile();
-        if (!itemJsonPath.exists()) {
-            itemJsonPath.mkdir();
-        }
-
-        // Write our item information
-        Path path = itemJsonPath.toPath().resolve(filePath.substring(filePath.lastIndexOf("/") + 1) + ".json");
-        try (OutputStream outputStream = Files.newOutputStream(path,
-                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE)) {
-            mapper.writer(new DefaultPrettyPrinter()).writeValue(outputStream, item);
+        // Write our item information into the folder that stores all item information
+        String path = "items/" + filePath.substring(filePath.lastIndexOf("/") + 1) + ".json";
+        try {
+            storage.write(path, mapper.writer(new DefaultPrettyPrinter()).writeValueAsBytes(item));
         } catch (IOException e) {
             e.printStackTrace();
             return null;
@@ -112,24 +103,24 @@ public class CustomModelDataHandler {
         return builder.build();
     }
 
-    public static ObjectNode handleItemTexture(ObjectMapper mapper, Path storage, String filePath) {
+    public static ObjectNode handleItemTexture(ObjectMapper mapper, PackFileSystem storage, String filePath) {
         String cleanIdentifier = filePath.substring(filePath.lastIndexOf("/") + 1);
 
         JsonNode textureFile;
-        File textureFilePath;
+        String textureFilePath;
         if (filePath.contains(":")) {
             String[] namespaceSplit = filePath.split(":");
-            textureFilePath = storage.resolve("assets/" + namespaceSplit[0] + "/models/" + namespaceSplit[1] + ".json").toFile();
+            textureFilePath = "assets/" + namespaceSplit[0] + "/models/" + namespaceSplit[1] + ".json";
         } else {
-            textureFilePath = storage.resolve("assets/minecraft/models/" + filePath + ".json").toFile();
+            textureFilePath = "assets/minecraft/models/" + filePath + ".json";
         }
-        if (!textureFilePath.exists()) {
+        if (!storage.exists(textureFilePath)) {
             System.out.println("No texture file found at " + textureFilePath + "; we were given " + filePath);
             return null;
         }
-        try (InputStream stream = new FileInputStream(textureFilePath)) {
+        try {
             // Read the model information for the Java CustomModelData
-            textureFile = mapper.readTree(stream);
+            textureFile = mapper.readTree(storage.read(textureFilePath));
         } catch (IOException e) {
             e.printStackTrace();
             return null;
@@ -148,15 +139,11 @@ public class CustomModelDataHandler {
                     String texturePath = "assets/" + namespaceSplit[0] + "/textures/" + namespaceSplit[1];
                     String restOfTheTexturePath = namespaceSplit[1].substring(0, namespaceSplit[1].lastIndexOf("/"));
                     if (!namespaceSplit[0].equals("minecraft")) {
-                        File namespaceFile = storage.resolve("textures/" + namespaceSplit[0] + "/" + restOfTheTexturePath).toFile();
-                        if (!namespaceFile.exists()) {
-                            //noinspection ResultOfMethodCallIgnored
-                            namespaceFile.mkdirs();
-                        }
+                        String namespacePath = "textures/" + namespaceSplit[0] + "/" + restOfTheTexturePath;
                         try {
                             // Copy from the original location to a new place in the resource pack
                             // For example: /assets/itemsadder/textures/item/crystal.png to textures/itemsadder/item/crystal.png
-                            Files.copy(storage.resolve(texturePath + ".png"), namespaceFile.toPath().resolve(namespaceSplit[1].substring(namespaceSplit[1].lastIndexOf("/") + 1) + ".png"));
+                            storage.copy(texturePath + ".png", namespacePath + "/" + namespaceSplit[1].substring(namespaceSplit[1].lastIndexOf("/") + 1) + ".png");
                             textureName.put("textures", "textures/" + namespaceSplit[0] + "/" +  namespaceSplit[1]);
                             // Have the identifier point to that texture data
                             textureData.set(cleanIdentifier, textureName);
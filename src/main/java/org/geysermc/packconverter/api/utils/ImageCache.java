@@ -0,0 +1,392 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.geysermc.packconverter.api.filesystem.IndexedPackFileSystem;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps decoded images of the pack in memory so converters reading the same file only decode it once
+ *
+ * Written images are kept decoded as well and are only encoded once their file is needed,
+ * so an image changed by several converters is still only encoded a single time.
+ * The cache is bounded by the size of the decoded pixels and drops the least recently used images first,
+ * written images are encoded when they are dropped.
+ * Callers always get their own copy, so they are free to modify it
+ */
+public class ImageCache {
+
+    // Tiled images with more pixels are encoded strip by strip right away instead of being kept whole
+    private static final int TILED_PIXELS = 1024 * 1024;
+
+    private final IndexedPackFileSystem storage;
+    private final long maxBytes;
+
+    /**
+     * Speed and size trade off used for the PNGs that are written
+     */
+    @Getter
+    @Setter
+    private volatile PngPreset pngPreset = PngPreset.DEFAULT;
+
+    /**
+     * Outputs of earlier transforms, or null to always run them
+     * Off unless one is set, a memo keeps every output it is given for as long as it is used
+     */
+    @Getter
+    @Setter
+    private volatile TransformMemo transformMemo;
+
+    private final Map<String, CachedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong encodes = new AtomicLong();
+
+    public ImageCache(IndexedPackFileSystem storage) {
+        this(storage, Runtime.getRuntime().maxMemory() / 8);
+    }
+
+    /**
+     * @param storage Storage to read images from
+     * @param maxBytes Maximum size of all the cached pixels
+     */
+    public ImageCache(IndexedPackFileSystem storage, long maxBytes) {
+        this.storage = storage;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Read an image from the pack
+     *
+     * @param path Path of the image
+     * @return Copy of the decoded image, or null if it can't be decoded
+     * @throws IOException If the file can't be read
+     */
+    public BufferedImage read(String path) throws IOException {
+        CachedImage cached = load(PackFileSystem.normalize(path));
+        return cached == null ? null : copy(cached.image);
+    }
+
+    /**
+     * Get where the visible pixels of an image are
+     * The summary is kept with the cached image, so it is only scanned once while the image stays unchanged
+     *
+     * @param path Path of the image
+     * @return Summary of the image, or null if it can't be decoded
+     * @throws IOException If the file can't be read
+     */
+    public AlphaBounds readAlphaBounds(String path) throws IOException {
+        CachedImage cached = load(PackFileSystem.normalize(path));
+        if (cached == null) {
+            return null;
+        }
+
+        // Cached images are never modified, at worst two threads scan the same image
+        AlphaBounds alphaBounds = cached.alphaBounds;
+        if (alphaBounds == null) {
+            alphaBounds = AlphaBounds.of(cached.image);
+            cached.alphaBounds = alphaBounds;
+        }
+
+        return alphaBounds;
+    }
+
+    /**
+     * Write an image to the pack, it is encoded once the file is needed
+     *
+     * @param image Image to write, a copy is kept so it can still be modified
+     * @param format Format to encode to
+     * @param path Path to write to
+     */
+    public void write(BufferedImage image, String format, String path) {
+        write(image, format, path, null);
+    }
+
+    /**
+     * Transform an image of the pack into another file
+     * If the transform returns the image it was given and the format stays the same, the file is copied instead,
+     * keeping its bytes and skipping the encode.
+     * Files that are already encoded are looked up in the {@link TransformMemo} by their contents first.
+     *
+     * @param from Path of the image
+     * @param to Path to write to, can be the same path
+     * @param format Format to encode to
+     * @param operation Everything besides the image that decides the output
+     * @param transform Transform to run on a copy of the image
+     * @throws IOException If the image can't be read or copied
+     */
+    public void transform(String from, String to, String format, String operation, UnaryOperator<BufferedImage> transform) throws IOException {
+        String fromKey = PackFileSystem.normalize(from);
+        String toKey = PackFileSystem.normalize(to);
+        boolean sameFormat = fromKey.toLowerCase(Locale.ROOT).endsWith("." + format.toLowerCase(Locale.ROOT));
+
+        // Deferred files have no contents to recognise until they are encoded
+        TransformMemo memo = transformMemo;
+        if (memo == null || storage.isPending(fromKey)) {
+            BufferedImage image = read(fromKey);
+            BufferedImage result = transform.apply(image);
+            if (result == image && sameFormat) {
+                keep(fromKey, toKey);
+            } else {
+                write(result, format, toKey);
+            }
+
+            return;
+        }
+
+        byte[] input = storage.read(fromKey);
+        String memoKey = TransformMemo.key(operation + '\0' + format + '\0' + pngPreset, input);
+
+        byte[] output = memo.get(memoKey);
+        if (output != null && output.length == 0) {
+            keep(fromKey, toKey);
+            return;
+        }
+
+        if (output != null) {
+            storage.write(toKey, output);
+            return;
+        }
+
+        CachedImage cached = load(fromKey, input);
+        if (cached == null) {
+            return;
+        }
+
+        BufferedImage image = copy(cached.image);
+        BufferedImage result = transform.apply(image);
+        if (result == image && sameFormat) {
+            memo.put(memoKey, TransformMemo.UNCHANGED);
+            keep(fromKey, toKey);
+        } else {
+            // Only stored once encoded, a later write to the same file may replace it before that
+            write(result, format, toKey, data -> memo.put(memoKey, data));
+        }
+    }
+
+    /**
+     * Write a tiled image to the pack
+     * Small images are kept like any other written image, large PNGs are encoded right away without ever being drawn whole
+     *
+     * @param image Image to write
+     * @param format Format to encode to
+     * @param path Path to write to
+     * @throws IOException If the image can't be written
+     */
+    public void write(TiledImage image, String format, String path) throws IOException {
+        String key = PackFileSystem.normalize(path);
+        if (image.getWidth() * image.getHeight() <= TILED_PIXELS || !"png".equalsIgnoreCase(format)) {
+            store(image.toImage(), format, key, null);
+            return;
+        }
+
+        encodes.incrementAndGet();
+        storage.write(key, PngEncoder.encode(image, pngPreset));
+    }
+
+    private void write(BufferedImage image, String format, String path, Consumer<byte[]> encoded) {
+        store(copy(image), format, PackFileSystem.normalize(path), encoded);
+    }
+
+    /**
+     * Keep a written image and defer its encode
+     *
+     * @param written Image that nothing else holds on to
+     */
+    private void store(BufferedImage written, String format, String key, Consumer<byte[]> encoded) {
+        storage.writeDeferred(key, () -> {
+            encodes.incrementAndGet();
+            byte[] data = ImageUtils.encode(written, format, pngPreset);
+            if (data != null && encoded != null) {
+                encoded.accept(data);
+            }
+
+            return data;
+        });
+
+        put(key, new CachedImage(written, true));
+    }
+
+    /**
+     * Leave an unchanged image as it is, copying its file if it has to be somewhere else
+     */
+    private void keep(String from, String to) throws IOException {
+        if (from.equals(to)) {
+            return;
+        }
+
+        if (storage.exists(to)) {
+            storage.delete(to);
+        }
+
+        storage.copy(from, to);
+    }
+
+    /**
+     * Drop an image after its file has been changed, moved or deleted
+     *
+     * @param path Path of the file
+     */
+    public synchronized void invalidate(String path) {
+        CachedImage cached = images.remove(PackFileSystem.normalize(path));
+        if (cached != null) {
+            bytes -= cached.size;
+        }
+    }
+
+    public synchronized void clear() {
+        images.clear();
+        bytes = 0;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return Amount of written images that have been encoded
+     */
+    public long getEncodes() {
+        return encodes.get();
+    }
+
+    private CachedImage load(String key) throws IOException {
+        return load(key, null);
+    }
+
+    /**
+     * @param key Normalized path of the image
+     * @param data Contents of the file if they were already read, otherwise null
+     */
+    private CachedImage load(String key, byte[] data) throws IOException {
+        CachedImage cached;
+        synchronized (this) {
+            cached = images.get(key);
+        }
+
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        // Converters writing a file never run alongside converters reading it,
+        // so the image can't be replaced while it is decoded
+        misses.incrementAndGet();
+        BufferedImage image = data == null ? ImageUtils.read(storage, key) : ImageUtils.decode(data);
+        if (image == null) {
+            return null;
+        }
+
+        cached = new CachedImage(image, false);
+        put(key, cached);
+        return cached;
+    }
+
+    private void put(String key, CachedImage cached) {
+        List<String> evictedWrites = new ArrayList<>();
+
+        synchronized (this) {
+            CachedImage previous = images.put(key, cached);
+            if (previous != null) {
+                bytes -= previous.size;
+            }
+            bytes += cached.size;
+
+            // Drop read images first, they are cheap to get back
+            evict(false, evictedWrites);
+            evict(true, evictedWrites);
+        }
+
+        for (String path : evictedWrites) {
+            try {
+                storage.flush(path);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void evict(boolean dirty, List<String> evictedWrites) {
+        Iterator<Map.Entry<String, CachedImage>> iterator = images.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, CachedImage> entry = iterator.next();
+            if (entry.getValue().dirty != dirty) {
+                continue;
+            }
+
+            bytes -= entry.getValue().size;
+            iterator.remove();
+
+            if (dirty) {
+                evictedWrites.add(entry.getKey());
+            }
+        }
+    }
+
+    private static BufferedImage copy(BufferedImage image) {
+        return new BufferedImage(image.getColorModel(), image.copyData(null), image.isAlphaPremultiplied(), null);
+    }
+
+    private static long sizeOf(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+
+    private static class CachedImage {
+        private final BufferedImage image;
+        private final boolean dirty;
+        private final long size;
+        private volatile AlphaBounds alphaBounds;
+
+        private CachedImage(BufferedImage image, boolean dirty) {
+            this.image = image;
+            this.dirty = dirty;
+            this.size = sizeOf(image);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.spi.ImageReaderSpi;
+import javax.imageio.spi.ImageWriterSpi;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads and writes the images that aren't handled by our own codecs through ImageIO
+ *
+ * Plugins are scanned once when the class is loaded. Every thread keeps the readers and writers it created,
+ * so parallel converters never share one, and streams are always kept in memory instead of ImageIO's cache files.
+ */
+public class ImageCodecs {
+
+    private static final ThreadLocal<List<ImageReader>> READERS = ThreadLocal.withInitial(ArrayList::new);
+    private static final ThreadLocal<Map<String, ImageWriter>> WRITERS = ThreadLocal.withInitial(HashMap::new);
+
+    private static final AtomicLong readerHits = new AtomicLong();
+    private static final AtomicLong readerMisses = new AtomicLong();
+    private static final AtomicLong writerHits = new AtomicLong();
+    private static final AtomicLong writerMisses = new AtomicLong();
+
+    static {
+        // Pick up plugins from other class loaders, once per JVM
+        ImageIO.scanForPlugins();
+    }
+
+    /**
+     * Decode an image
+     *
+     * @param data Encoded image
+     * @return The decoded image, or null if there is no reader for it
+     * @throws IOException If the image can't be decoded
+     */
+    public static BufferedImage read(byte[] data) throws IOException {
+        try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(data))) {
+            ImageReader reader = getReader(input);
+            if (reader == null) {
+                return null;
+            }
+
+            try {
+                reader.setInput(input, true, true);
+                BufferedImage image = reader.read(0);
+                reader.reset();
+                return image;
+            } catch (IOException | RuntimeException e) {
+                // A reader that failed may be left in any state, so it isn't used again
+                READERS.get().remove(reader);
+                reader.dispose();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Encode an image
+     *
+     * @param img Image to encode
+     * @param format Format to encode to
+     * @return The encoded image, or null if there is no writer for the format and image
+     * @throws IOException If the image can't be encoded
+     */
+    public static byte[] write(BufferedImage img, String format) throws IOException {
+        String key = format.toLowerCase(Locale.ROOT);
+        ImageWriter writer = getWriter(img, key);
+        if (writer == null) {
+            return null;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = new MemoryCacheImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            writer.write(img);
+            writer.reset();
+        } catch (IOException | RuntimeException e) {
+            WRITERS.get().remove(key, writer);
+            writer.dispose();
+            throw e;
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return Reads that reused a reader of the thread
+     */
+    public static long getReaderHits() {
+        return readerHits.get();
+    }
+
+    /**
+     * @return Reads that had to create a reader
+     */
+    public static long getReaderMisses() {
+        return readerMisses.get();
+    }
+
+    /**
+     * @return Writes that reused a writer of the thread
+     */
+    public static long getWriterHits() {
+        return writerHits.get();
+    }
+
+    /**
+     * @return Writes that had to create a writer
+     */
+    public static long getWriterMisses() {
+        return writerMisses.get();
+    }
+
+    private static ImageReader getReader(ImageInputStream input) throws IOException {
+        List<ImageReader> readers = READERS.get();
+        for (ImageReader reader : readers) {
+            ImageReaderSpi provider = reader.getOriginatingProvider();
+            if (provider != null && provider.canDecodeInput(input)) {
+                readerHits.incrementAndGet();
+                return reader;
+            }
+        }
+
+        Iterator<ImageReader> iterator = ImageIO.getImageReaders(input);
+        if (!iterator.hasNext()) {
+            return null;
+        }
+
+        readerMisses.incrementAndGet();
+        ImageReader reader = iterator.next();
+        readers.add(reader);
+        return reader;
+    }
+
+    private static ImageWriter getWriter(BufferedImage img, String format) {
+        Map<String, ImageWriter> writers = WRITERS.get();
+        ImageWriter writer = writers.get(format);
+        if (writer != null) {
+            ImageWriterSpi provider = writer.getOriginatingProvider();
+            if (provider != null && provider.canEncodeImage(img)) {
+                writerHits.incrementAndGet();
+                return writer;
+            }
+        }
+
+        // Not every writer of a format can write every kind of image, so the writer is picked for this one
+        Iterator<ImageWriter> iterator = ImageIO.getImageWriters(ImageTypeSpecifier.createFromRenderedImage(img), format);
+        if (!iterator.hasNext()) {
+            return null;
+        }
+
+        writerMisses.incrementAndGet();
+        writer = iterator.next();
+        ImageWriter previous = writers.put(format, writer);
+        if (previous != null) {
+            previous.dispose();
+        }
+
+        return writer;
+    }
+}
@@ -26,13 +26,15 @@
 
 package org.geysermc.packconverter.api.utils;
 
-import javax.imageio.ImageIO;
-import javax.swing.*;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
+
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.image.*;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
 
 public class ImageUtils {
 
@@ -67,11 +69,27 @@ public class ImageUtils {
      *
      * @param img Image to use
      * @param scale Amount to scale the image by
-     * @return Scaled image
+     * @return Scaled image, or the same image if the scale is 1
      */
     public static BufferedImage scale(BufferedImage img, float scale) {
         int w = img.getWidth();
         int h = img.getHeight();
+
+        if (scale == 1) {
+            return img;
+        }
+
+        // Pixel art is nearly always scaled by a whole factor, which can be done by copying pixels
+        if (scale >= 1 && scale == (int) scale) {
+            return upscale(img, (int) scale);
+        }
+
+        // Only powers of two are exact as a float, so only those give the same pixels as below
+        int factor = (int) (1 / scale);
+        if (scale < 1 && 1 / scale == factor && Integer.bitCount(factor) == 1 && w % factor == 0 && h % factor == 0) {
+            return downscale(img, factor);
+        }
+
         BufferedImage after = new BufferedImage(Math.round(w * scale), Math.round(h * scale), BufferedImage.TYPE_INT_ARGB);
         AffineTransform at = new AffineTransform();
         at.scale(scale, scale);
@@ -79,12 +97,40 @@ public class ImageUtils {
         return scaleOp.filter(img, after);
     }
 
+    /**
+     * Scale a buffered image up by a whole factor, repeating every pixel
+     *
+     * @param img Image to use
+     * @param factor Amount to scale the image by
+     * @return Scaled image
+     */
+    public static BufferedImage upscale(BufferedImage img, int factor) {
+        BufferedImage newImage = RasterUtils.createImage(img.getWidth() * factor, img.getHeight() * factor);
+        RasterUtils.upscale(RasterUtils.getPixels(img), img.getWidth(), RasterUtils.getData(newImage), factor);
+
+        return newImage;
+    }
+
+    /**
+     * Scale a buffered image down by a whole factor, keeping the pixel at the center of every block
+     *
+     * @param img Image to use, its size must be a multiple of the factor
+     * @param factor Amount to scale the image down by
+     * @return Scaled image
+     */
+    public static BufferedImage downscale(BufferedImage img, int factor) {
+        BufferedImage newImage = RasterUtils.createImage(img.getWidth() / factor, img.getHeight() / factor);
+        RasterUtils.downscale(RasterUtils.getPixels(img), img.getWidth(), RasterUtils.getData(newImage), factor);
+
+        return newImage;
+    }
+
     /**
      * Scale the image so it has a width that is at least the min
      *
      * @param img Image to use
      * @param minWidth Width to check
-     * @return Scaled image if needed
+     * @return Scaled image if needed, otherwise the same image
      */
     public static BufferedImage ensureMinWidth(BufferedImage img, int minWidth) {
         if (img.getWidth() < minWidth) {
@@ -99,7 +145,7 @@ public class ImageUtils {
      *
      * @param img Image to use
      * @param minHeight Height to check
-     * @return Scaled image if needed
+     * @return Scaled image if needed, otherwise the same image
      */
     public static BufferedImage ensureMinHeight(BufferedImage img, int minHeight) {
         if (img.getHeight() < minHeight) {
@@ -114,7 +160,7 @@ public class ImageUtils {
      *
      * @param img Image to use
      * @param maxWidth Width to check
-     * @return Scaled image if needed
+     * @return Scaled image if needed, otherwise the same image
      */
     public static BufferedImage ensureMaxWidth(BufferedImage img, int maxWidth) {
         if (img.getWidth() > maxWidth) {
@@ -129,7 +175,7 @@ public class ImageUtils {
      *
      * @param img Image to use
      * @param maxHeight Height to check
-     * @return Scaled image if needed
+     * @return Scaled image if needed, otherwise the same image
      */
     public static BufferedImage ensureMaxHeight(BufferedImage img, int maxHeight) {
         if (img.getHeight() > maxHeight) {
@@ -181,7 +227,86 @@ public class ImageUtils {
      */
     public static void write(BufferedImage img, String format, File output) throws IOException {
         output.getParentFile().mkdirs();
-        ImageIO.write(img, format, output);
+
+        byte[] data = encode(img, format);
+        if (data != null) {
+            Files.write(output.toPath(), data);
+        }
+    }
+
+    /**
+     * Read an image from the pack storage
+     * Common PNGs are decoded straight to ARGB, everything else goes through {@link ImageCodecs}
+     *
+     * @param storage Storage to read from
+     * @param path Path of the image
+     * @return The decoded image
+     * @throws IOException
+     */
+    public static BufferedImage read(PackFileSystem storage, String path) throws IOException {
+        return decode(storage.read(path));
+    }
+
+    /**
+     * Decode an image
+     * Common PNGs are decoded straight to ARGB, everything else goes through {@link ImageCodecs}
+     *
+     * @param data Encoded image
+     * @return The decoded image, or null if there is no reader for it
+     * @throws IOException
+     */
+    public static BufferedImage decode(byte[] data) throws IOException {
+        BufferedImage image = PngDecoder.decode(data);
+        if (image != null) {
+            return image;
+        }
+
+        return ImageCodecs.read(data);
+    }
+
+    /**
+     * Write an image to the pack storage
+     *
+     * @param img Image to write
+     * @param format Format to write
+     * @param storage Storage to write to
+     * @param path Path to write to
+     * @throws IOException
+     */
+    public static void write(BufferedImage img, String format, PackFileSystem storage, String path) throws IOException {
+        byte[] data = encode(img, format);
+        if (data != null) {
+            storage.write(path, data);
+        }
+    }
+
+    /**
+     * @see ImageUtils#encode(BufferedImage, String, PngPreset)
+     */
+    public static byte[] encode(BufferedImage img, String format) throws IOException {
+        return encode(img, format, PngPreset.DEFAULT);
+    }
+
+    /**
+     * Encode an image
+     * PNGs are written by {@link PngEncoder} and TGAs by {@link TgaEncoder}, other formats go through {@link ImageCodecs}
+     *
+     * @param img Image to encode
+     * @param format Format to encode to
+     * @param preset Speed and size trade off, TGAs are only run length encoded when the preset isn't {@link PngPreset#FAST}
+     * @return The encoded image, or null if there is no writer for the format
+     * @throws IOException
+     */
+    public static byte[] encode(BufferedImage img, String format, PngPreset preset) throws IOException {
+        if ("png".equalsIgnoreCase(format)) {
+            return PngEncoder.encode(img, preset);
+        }
+
+        if ("tga".equalsIgnoreCase(format)) {
+            return TgaEncoder.encode(img, preset != PngPreset.FAST);
+        }
+
+        return ImageCodecs.write(img, format);
     }
 
     /**
@@ -191,19 +316,8 @@ public class ImageUtils {
      * @return A grayscale version of the image
      */
     public static BufferedImage grayscale(BufferedImage img) {
-        BufferedImage newImage = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        for (int x = 0; x < newImage.getWidth(); x++) {
-            for (int y = 0; y < newImage.getHeight(); y++) {
-                Color newCol = new Color(img.getRGB(x, y), true);
-
-                int grey = Math.round(0.2126f * newCol.getRed() +
-                        0.7152f * newCol.getGreen() +
-                        0.0722f * newCol.getBlue());
-
-                newCol = new Color(grey, grey, grey, newCol.getAlpha());
-                newImage.setRGB(x, y, colorToARGB(newCol));
-            }
-        }
+        BufferedImage newImage = RasterUtils.createImage(img.getWidth(), img.getHeight());
+        PixelKernels.grayscale(RasterUtils.getPixels(img), RasterUtils.getData(newImage));
 
         return newImage;
     }
@@ -216,46 +330,50 @@ public class ImageUtils {
      * @return Tinted image
      */
     public static BufferedImage colorize(BufferedImage img, Color color) {
-        BufferedImage newImage = grayscale(img);
-
-        for (int x = 0; x < newImage.getWidth(); x++) {
-            for (int y = 0; y < newImage.getHeight(); y++) {
-                Color newCol = new Color(newImage.getRGB(x, y), true);
-                newCol = new Color(Math.round(newCol.getRed() / 255f * color.getRed()), Math.round(newCol.getGreen() / 255f * color.getGreen()), Math.round(newCol.getBlue() / 255f * color.getBlue()), newCol.getAlpha());
-                newImage.setRGB(x, y, colorToARGB(newCol));
-            }
-        }
+        BufferedImage newImage = RasterUtils.createImage(img.getWidth(), img.getHeight());
+        PixelKernels.colorize(RasterUtils.getPixels(img), RasterUtils.getData(newImage), color);
 
         return newImage;
     }
 
     /**
-     * Convert an {@link Image} to {@link BufferedImage}
+     * Tint {@link BufferedImage}s and draw them over each other
+     * The result has the size of the first image
      *
-     * @param img Image to use
-     * @return The converted image
+     * @param images Images to use, from bottom to top
+     * @param colors Color to tint each image
+     * @return Tinted and combined image
      */
-    private static BufferedImage toBufferedImage(Image img) {
-        if (img instanceof BufferedImage) {
-            return (BufferedImage) img;
+    public static BufferedImage colorizeOverlay(List<BufferedImage> images, List<Color> colors) {
+        int[][] layers = new int[images.size()][];
+        int[] widths = new int[images.size()];
+        int[] heights = new int[images.size()];
+        for (int i = 0; i < images.size(); i++) {
+            BufferedImage image = images.get(i);
+            layers[i] = RasterUtils.getPixels(image);
+            widths[i] = image.getWidth();
+            heights[i] = image.getHeight();
         }
 
-        BufferedImage newImage = new BufferedImage(img.getWidth(null), img.getHeight(null), BufferedImage.TYPE_INT_ARGB);
-
-        Graphics g = newImage.getGraphics();
-        g.drawImage(img, 0, 0, null);
+        BufferedImage newImage = RasterUtils.createImage(widths[0], heights[0]);
+        RasterUtils.colorizeOverlay(layers, widths, heights, colors.toArray(new Color[0]), RasterUtils.getData(newImage), newImage.getWidth());
 
         return newImage;
     }
 
     /**
      * Rotate a given {@link BufferedImage} by an angle
+     * Quarter turns move the pixels exactly, other angles are interpolated
      *
      * @param img Image to use
      * @param angle Amount to rotate by in degrees
      * @return Rotated image
      */
     public static BufferedImage rotate(BufferedImage img, int angle) {
+        if (angle % 90 == 0) {
+            return transform(img, RasterTransform.rotation(angle));
+        }
+
         final double rads = Math.toRadians(-angle);
         final double sin = Math.abs(Math.sin(rads));
         final double cos = Math.abs(Math.cos(rads));
@@ -306,24 +424,59 @@ public class ImageUtils {
      * @return The converted image
      */
     public static BufferedImage borderImage(BufferedImage img, int borderLeft, int borderTop, int borderRight, int borderBottom, int newWidth, int newHeight) {
-        BufferedImage newImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_ARGB);
-        Graphics g = newImage.getGraphics();
+        BufferedImage newImage = RasterUtils.createImage(newWidth, newHeight);
+        RasterView src = RasterView.of(img);
+        RasterView dst = RasterView.of(newImage);
+
+        int width = img.getWidth();
+        int height = img.getHeight();
+        int middleWidth = width - borderLeft - borderRight;
+        int middleHeight = height - borderTop - borderBottom;
+        int newMiddleWidth = newWidth - borderLeft - borderRight;
+        int newMiddleHeight = newHeight - borderTop - borderBottom;
 
-        g.drawImage(crop(img, 0, 0, borderLeft, borderTop), 0, 0, null);
-        g.drawImage(resize(crop(img, borderLeft, 0, (img.getWidth() - borderLeft - borderRight), borderTop), (newWidth - borderLeft - borderRight), borderTop), borderLeft, 0, null);
-        g.drawImage(crop(img, (img.getWidth() - borderRight), 0, borderRight, borderTop), (newWidth - borderRight), 0, null);
+        src.region(0, 0, borderLeft, borderTop).blit(dst, 0, 0);
+        drawResized(src.region(borderLeft, 0, middleWidth, borderTop), dst, borderLeft, 0, newMiddleWidth, borderTop);
+        src.region((width - borderRight), 0, borderRight, borderTop).blit(dst, (newWidth - borderRight), 0);
 
-        g.drawImage(resize(crop(img, 0, borderTop, borderLeft, (img.getHeight() - borderTop - borderBottom)), borderLeft, (newHeight - borderTop - borderBottom)), 0, borderTop, null);
-        g.drawImage(resize(crop(img, borderLeft, borderTop, (img.getWidth() - borderLeft - borderRight), (img.getHeight() - borderTop - borderBottom)), (newWidth - borderLeft - borderRight), (newHeight - borderTop - borderBottom)), borderLeft, borderTop, null);
-        g.drawImage(resize(crop(img, (img.getWidth() - borderRight), borderTop, borderRight, (img.getHeight() - borderTop - borderBottom)), borderRight, (newHeight - borderTop - borderBottom)), (newWidth - borderRight), borderTop, null);
+        drawResized(src.region(0, borderTop, borderLeft, middleHeight), dst, 0, borderTop, borderLeft, newMiddleHeight);
+        drawResized(src.region(borderLeft, borderTop, middleWidth, middleHeight), dst, borderLeft, borderTop, newMiddleWidth, newMiddleHeight);
+        drawResized(src.region((width - borderRight), borderTop, borderRight, middleHeight), dst, (newWidth - borderRight), borderTop, borderRight, newMiddleHeight);
 
-        g.drawImage(crop(img, 0, (img.getHeight() - borderBottom), borderLeft, borderRight), 0, (newHeight - borderBottom), null);
-        g.drawImage(resize(crop(img, borderLeft, (img.getHeight() - borderBottom), (img.getWidth() - borderLeft - borderRight), borderRight), (newWidth - borderLeft - borderRight), borderRight), borderLeft, (newHeight - borderBottom), null);
-        g.drawImage(crop(img, (img.getWidth() - borderRight), (img.getHeight() - borderBottom), borderRight, borderRight), (newWidth - borderRight), (newHeight - borderBottom), null);
+        src.region(0, (height - borderBottom), borderLeft, borderRight).blit(dst, 0, (newHeight - borderBottom));
+        drawResized(src.region(borderLeft, (height - borderBottom), middleWidth, borderRight), dst, borderLeft, (newHeight - borderBottom), newMiddleWidth, borderRight);
+        src.region((width - borderRight), (height - borderBottom), borderRight, borderRight).blit(dst, (newWidth - borderRight), (newHeight - borderBottom));
 
         return newImage;
     }
 
+    /**
+     * Resize a view and draw it over another view
+     *
+     * @param src View to resize
+     * @param dst View to draw onto
+     * @param dstX Target X
+     * @param dstY Target Y
+     * @param width Target width
+     * @param height Target height
+     */
+    private static void drawResized(RasterView src, RasterView dst, int dstX, int dstY, int width, int height) {
+        if (src.getWidth() <= 0 || src.getHeight() <= 0 || width <= 0 || height <= 0) {
+            return;
+        }
+
+        if (src.getWidth() == width && src.getHeight() == height) {
+            src.blit(dst, dstX, dstY);
+            return;
+        }
+
+        BufferedImage resized = RasterUtils.createImage(width, height);
+        new Resampler(ResampleFilter.BOX, src.getWidth(), src.getHeight(), width, height)
+                .resample(src.copy().getData(), RasterUtils.getData(resized));
+
+        RasterView.of(resized).blit(dst, dstX, dstY);
+    }
+
     /**
      * Resize a {@link BufferedImage} to the requested size
      * Doesnt replicate the jimp way of doing it but should give a similar output
@@ -334,8 +487,28 @@ public class ImageUtils {
      * @return Scaled image to size
      */
     public static BufferedImage resize(BufferedImage img, int newWidth, int netHeight) {
-        Image scaled = img.getScaledInstance(newWidth, netHeight, BufferedImage.SCALE_SMOOTH);
-        return toBufferedImage(scaled);
+        return resize(img, newWidth, netHeight, ResampleFilter.BOX);
+    }
+
+    /**
+     * Resize a {@link BufferedImage} to the requested size with a given filter
+     *
+     * @param img Image to use
+     * @param newWidth Target width
+     * @param newHeight Target height
+     * @param filter Filter to resample with
+     * @return Scaled image to size, or the same image if it already has the size
+     */
+    public static BufferedImage resize(BufferedImage img, int newWidth, int newHeight, ResampleFilter filter) {
+        if (newWidth == img.getWidth() && newHeight == img.getHeight()) {
+            return img;
+        }
+
+        BufferedImage newImage = RasterUtils.createImage(newWidth, newHeight);
+        new Resampler(filter, img.getWidth(), img.getHeight(), newWidth, newHeight)
+                .resample(RasterUtils.getPixels(img), RasterUtils.getData(newImage));
+
+        return newImage;
     }
 
     /**
@@ -346,34 +519,8 @@ public class ImageUtils {
      * @return Saturated image
      */
     public static BufferedImage saturate(BufferedImage img, int amount) {
-        BufferedImage newImage = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB);
-
-        for (int x = 0; x < newImage.getWidth(); x++) {
-            for (int y = 0; y < newImage.getHeight(); y++) {
-                Color newCol = new Color(img.getRGB(x, y), true);
-
-                float[] hsb = Color.RGBtoHSB(newCol.getRed(), newCol.getGreen(), newCol.getBlue(), null);
-                float hue = hsb[0];
-                float saturation = hsb[1];
-                float brightness = hsb[2];
-
-                saturation = Math.max(0f, saturation + (amount / 100f));
-
-                int pixel = Color.HSBtoRGB(hue, saturation, brightness);
-
-                int red = (0xff & (pixel >> 16));
-                int green = (0xff & (pixel >> 8));
-                int blue = (0xff & pixel);
-
-                red = clamp(red, 0, 255);
-                green = clamp(green, 0, 255);
-                blue = clamp(blue, 0, 255);
-
-                newCol = new Color(red, green, blue, newCol.getAlpha());
-
-                newImage.setRGB(x, y, colorToARGB(newCol));
-            }
-        }
+        BufferedImage newImage = RasterUtils.createImage(img.getWidth(), img.getHeight());
+        PixelKernels.saturate(RasterUtils.getPixels(img), RasterUtils.getData(newImage), amount);
 
         return newImage;
     }
@@ -386,33 +533,35 @@ public class ImageUtils {
      * @return The flipped image
      */
     public static BufferedImage flip(BufferedImage image, boolean horizontal, boolean vertical) {
-        AffineTransform at = AffineTransform.getScaleInstance(horizontal ? -1 : 1, vertical ? -1 : 1);
-
-        if (horizontal) {
-            at.translate(-image.getWidth(null), 0);
+        if (horizontal && vertical) {
+            return transform(image, RasterTransform.ROTATE_180);
         }
 
-        if (vertical) {
-            at.translate(0, -image.getHeight(null));
+        if (horizontal) {
+            return transform(image, RasterTransform.FLIP_HORIZONTAL);
         }
 
-        BufferedImage newImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g = newImage.createGraphics();
-        g.transform(at);
-        g.drawImage(image, 0, 0, null);
-        g.dispose();
-        return newImage;
+        return transform(image, vertical ? RasterTransform.FLIP_VERTICAL : RasterTransform.NONE);
     }
 
     /**
-     * Limit a number between two values
+     * Apply a quarter turn or flip to a given {@link BufferedImage}
      *
-     * @param val Value to limit
-     * @param min Lower bound
-     * @param max Upper bound
-     * @return Limited value
+     * @param img Image to use
+     * @param transform Transform to apply
+     * @return The transformed image, or the same image for {@link RasterTransform#NONE}
      */
-    private static int clamp(int val, int min, int max) {
-        return val > max ? max : Math.max(val, min);
+    public static BufferedImage transform(BufferedImage img, RasterTransform transform) {
+        if (transform == RasterTransform.NONE) {
+            return img;
+        }
+
+        int width = img.getWidth();
+        int height = img.getHeight();
+
+        BufferedImage newImage = RasterUtils.createImage(transform.resultWidth(width, height), transform.resultHeight(width, height));
+        RasterUtils.transform(RasterUtils.getPixels(img), width, RasterUtils.getData(newImage), transform);
+
+        return newImage;
     }
 }
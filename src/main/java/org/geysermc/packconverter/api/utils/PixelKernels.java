@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import java.awt.*;
+
+/**
+ * Entry point for the data parallel pixel kernels
+ *
+ * This is the scalar version that runs on every Java version. The jar also contains a Java 17 version of this class
+ * (under META-INF/versions/17) that uses the incubating Vector API when the jdk.incubator.vector module is added,
+ * and falls back to the same scalar kernels in {@link RasterUtils} otherwise.
+ */
+public class PixelKernels {
+
+    /**
+     * Check if the kernels run on the Vector API
+     *
+     * @return True if the kernels are vectorized
+     */
+    public static boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * @see RasterUtils#grayscale(int[], int[])
+     */
+    public static void grayscale(int[] src, int[] dst) {
+        RasterUtils.grayscale(src, dst);
+    }
+
+    /**
+     * @see RasterUtils#colorize(int[], int[], Color)
+     */
+    public static void colorize(int[] src, int[] dst, Color color) {
+        RasterUtils.colorize(src, dst, color);
+    }
+
+    /**
+     * @see RasterUtils#saturate(int[], int[], int)
+     */
+    public static void saturate(int[] src, int[] dst, int amount) {
+        RasterUtils.saturate(src, dst, amount);
+    }
+
+    /**
+     * @see RasterUtils#replaceTransparent(int[], int[], int)
+     */
+    public static boolean replaceTransparent(int[] src, int[] dst, int replacement) {
+        return RasterUtils.replaceTransparent(src, dst, replacement);
+    }
+
+    /**
+     * @see RasterUtils#maskOverlay(int[], int[], int[], boolean, int)
+     */
+    public static void maskOverlay(int[] src, int[] overlay, int[] dst, boolean reverse, int alpha) {
+        RasterUtils.maskOverlay(src, overlay, dst, reverse, alpha);
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes the PNG formats found in resource packs straight into {@link BufferedImage#TYPE_INT_ARGB} images
+ *
+ * Supports non interlaced 8 bit RGBA, RGB, grey and grey with alpha, and palettes of 1 to 8 bits, including tRNS transparency.
+ * Anything else is left to ImageIO by returning null.
+ */
+public class PngDecoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private static final int IHDR = 0x49484452;
+    private static final int PLTE = 0x504C5445;
+    private static final int TRNS = 0x74524E53;
+    private static final int IDAT = 0x49444154;
+    private static final int IEND = 0x49454E44;
+
+    private static final int COLOR_GREY = 0;
+    private static final int COLOR_RGB = 2;
+    private static final int COLOR_PALETTE = 3;
+    private static final int COLOR_GREY_ALPHA = 4;
+    private static final int COLOR_RGBA = 6;
+
+    // A pixel takes at most 8 bytes, so larger images could overflow the row and raster sizes and are left to ImageIO
+    private static final long MAX_PIXELS = Integer.MAX_VALUE / 8;
+
+    private final byte[] data;
+    private final Inflater inflater = new Inflater();
+
+    private int width;
+    private int height;
+    private int bitDepth;
+    private int colorType;
+
+    private int[] palette;
+    private int transparent = -1;
+
+    // Position of the next chunk to look at for image data
+    private int position;
+
+    private PngDecoder(byte[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Decode a PNG image
+     *
+     * @param data Encoded image
+     * @return The decoded image, or null if the data is not a PNG this decoder can handle
+     */
+    public static BufferedImage decode(byte[] data) {
+        if (!isPng(data)) {
+            return null;
+        }
+
+        PngDecoder decoder = new PngDecoder(data);
+        try {
+            return decoder.decode();
+        } catch (DataFormatException | RuntimeException e) {
+            // Broken or unusual files get another chance through ImageIO
+            return null;
+        } finally {
+            decoder.inflater.end();
+        }
+    }
+
+    /**
+     * Check if data starts with the PNG signature
+     *
+     * @param data Data to check
+     * @return True if the data looks like a PNG
+     */
+    public static boolean isPng(byte[] data) {
+        if (data.length < SIGNATURE.length) {
+            return false;
+        }
+
+        for (int i = 0; i < SIGNATURE.length; i++) {
+            if (data[i] != SIGNATURE[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private BufferedImage decode() throws DataFormatException {
+        if (!readHeader()) {
+            return null;
+        }
+
+        int[] lookup = pixelLookup();
+
+        int channels = channels();
+        int pixelBytes = Math.max(1, channels * bitDepth / 8);
+        int rowBytes = (int) (((long) width * channels * bitDepth + 7) / 8);
+
+        byte[] previous = new byte[rowBytes];
+        byte[] current = new byte[rowBytes];
+        byte[] filter = new byte[1];
+
+        BufferedImage image = RasterUtils.createImage(width, height);
+        int[] pixels = RasterUtils.getData(image);
+
+        for (int y = 0; y < height; y++) {
+            inflate(filter);
+            inflate(current);
+            unfilter(filter[0], current, previous, pixelBytes);
+            convert(current, pixels, y * width, lookup);
+
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return image;
+    }
+
+    /**
+     * Read the header and the chunks before the image data
+     *
+     * @return False if the format is not supported
+     */
+    private boolean readHeader() {
+        position = SIGNATURE.length;
+
+        while (position + 8 <= data.length) {
+            int length = readInt(position);
+            int type = readInt(position + 4);
+            int start = position + 8;
+            if (!fits(start, length)) {
+                return false;
+            }
+
+            switch (type) {
+                case IHDR:
+                    width = readInt(start);
+                    height = readInt(start + 4);
+                    bitDepth = data[start + 8] & 0xFF;
+                    colorType = data[start + 9] & 0xFF;
+                    int interlace = data[start + 12] & 0xFF;
+                    if (width <= 0 || height <= 0 || (long) width * height > MAX_PIXELS || interlace != 0 || !isSupported()) {
+                        return false;
+                    }
+                    break;
+                case PLTE:
+                    palette = new int[256];
+                    // Indices past the end of the palette are opaque black
+                    Arrays.fill(palette, 0xFF000000);
+                    for (int i = 0; i < Math.min(256, length / 3); i++) {
+                        int offset = start + i * 3;
+                        palette[i] = 0xFF000000 | (data[offset] & 0xFF) << 16 | (data[offset + 1] & 0xFF) << 8 | (data[offset + 2] & 0xFF);
+                    }
+                    break;
+                case TRNS:
+                    readTransparency(start, length);
+                    break;
+                case IDAT:
+                    // Stay on the chunk, the image data is read from here
+                    return width > 0 && (colorType != COLOR_PALETTE || palette != null);
+                case IEND:
+                    return false;
+                default:
+                    break;
+            }
+
+            // Length, type, data and CRC
+            position = start + length + 4;
+        }
+
+        return false;
+    }
+
+    private boolean isSupported() {
+        switch (colorType) {
+            case COLOR_PALETTE:
+                return bitDepth == 1 || bitDepth == 2 || bitDepth == 4 || bitDepth == 8;
+            case COLOR_GREY:
+            case COLOR_RGB:
+            case COLOR_GREY_ALPHA:
+            case COLOR_RGBA:
+                return bitDepth == 8;
+            default:
+                return false;
+        }
+    }
+
+    private void readTransparency(int start, int length) {
+        switch (colorType) {
+            case COLOR_PALETTE:
+                if (palette == null) {
+                    return;
+                }
+
+                for (int i = 0; i < Math.min(256, length); i++) {
+                    palette[i] = (data[start + i] & 0xFF) << 24 | (palette[i] & 0xFFFFFF);
+                }
+                break;
+            case COLOR_GREY:
+                // Samples are stored as 16 bit values, only the low byte is used at 8 bits
+                transparent = data[start + 1] & 0xFF;
+                break;
+            case COLOR_RGB:
+                transparent = (data[start + 1] & 0xFF) << 16 | (data[start + 3] & 0xFF) << 8 | (data[start + 5] & 0xFF);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private int channels() {
+        switch (colorType) {
+            case COLOR_RGB:
+                return 3;
+            case COLOR_GREY_ALPHA:
+                return 2;
+            case COLOR_RGBA:
+                return 4;
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * Build the table that maps single byte samples to pixels, for palette and grey images
+     *
+     * @return The table, or null if the pixels have more than one sample
+     */
+    private int[] pixelLookup() {
+        if (colorType == COLOR_PALETTE) {
+            return palette;
+        }
+
+        if (colorType != COLOR_GREY) {
+            return null;
+        }
+
+        int[] lookup = new int[256];
+        for (int grey = 0; grey < 256; grey++) {
+            lookup[grey] = 0xFF000000 | grey << 16 | grey << 8 | grey;
+        }
+
+        if (transparent >= 0) {
+            lookup[transparent] &= 0xFFFFFF;
+        }
+
+        return lookup;
+    }
+
+    /**
+     * Fill a buffer with inflated image data, moving on to the next IDAT chunks as needed
+     *
+     * @param buffer Buffer to fill
+     * @throws DataFormatException If the data can't be inflated or ends early
+     */
+    private void inflate(byte[] buffer) throws DataFormatException {
+        int offset = 0;
+        while (offset < buffer.length) {
+            int read = inflater.inflate(buffer, offset, buffer.length - offset);
+            offset += read;
+
+            if (read == 0) {
+                if (inflater.finished() || inflater.needsDictionary() || !nextData()) {
+                    throw new DataFormatException("Image data ended early");
+                }
+            }
+        }
+    }
+
+    /**
+     * Feed the next IDAT chunk to the inflater
+     *
+     * @return False if there is no image data left
+     */
+    private boolean nextData() {
+        while (position + 8 <= data.length) {
+            int length = readInt(position);
+            int type = readInt(position + 4);
+            int start = position + 8;
+            if (!fits(start, length)) {
+                return false;
+            }
+
+            position = start + length + 4;
+
+            if (type == IDAT) {
+                inflater.setInput(data, start, length);
+                return true;
+            }
+
+            if (type == IEND) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Check that a chunk and its CRC are inside the data
+     *
+     * @param start Start of the chunk data
+     * @param length Length read from the chunk
+     * @return False if the length is negative or runs past the end
+     */
+    private boolean fits(int start, int length) {
+        return length >= 0 && length <= data.length - start - 4;
+    }
+
+    private static void unfilter(int filter, byte[] current, byte[] previous, int pixelBytes) {
+        switch (filter) {
+            case 0:
+                break;
+            case 1:
+                for (int i = pixelBytes; i < current.length; i++) {
+                    current[i] += current[i - pixelBytes];
+                }
+                break;
+            case 2:
+                for (int i = 0; i < current.length; i++) {
+                    current[i] += previous[i];
+                }
+                break;
+            case 3:
+                for (int i = 0; i < pixelBytes; i++) {
+                    current[i] += (previous[i] & 0xFF) >>> 1;
+                }
+                for (int i = pixelBytes; i < current.length; i++) {
+                    current[i] += ((current[i - pixelBytes] & 0xFF) + (previous[i] & 0xFF)) >>> 1;
+                }
+                break;
+            case 4:
+                for (int i = 0; i < pixelBytes; i++) {
+                    current[i] += previous[i];
+                }
+                for (int i = pixelBytes; i < current.length; i++) {
+                    current[i] += paeth(current[i - pixelBytes] & 0xFF, previous[i] & 0xFF, previous[i - pixelBytes] & 0xFF);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown filter " + filter);
+        }
+    }
+
+    private static int paeth(int left, int up, int upLeft) {
+        int estimate = left + up - upLeft;
+        int distanceLeft = Math.abs(estimate - left);
+        int distanceUp = Math.abs(estimate - up);
+        int distanceUpLeft = Math.abs(estimate - upLeft);
+
+        if (distanceLeft <= distanceUp && distanceLeft <= distanceUpLeft) {
+            return left;
+        }
+
+        return distanceUp <= distanceUpLeft ? up : upLeft;
+    }
+
+    private void convert(byte[] row, int[] pixels, int offset, int[] lookup) {
+        switch (colorType) {
+            case COLOR_RGBA:
+                for (int x = 0, i = 0; x < width; x++, i += 4) {
+                    pixels[offset + x] = (row[i + 3] & 0xFF) << 24 | (row[i] & 0xFF) << 16 | (row[i + 1] & 0xFF) << 8 | (row[i + 2] & 0xFF);
+                }
+                break;
+            case COLOR_RGB:
+                for (int x = 0, i = 0; x < width; x++, i += 3) {
+                    int rgb = (row[i] & 0xFF) << 16 | (row[i + 1] & 0xFF) << 8 | (row[i + 2] & 0xFF);
+                    pixels[offset + x] = rgb == transparent ? rgb : 0xFF000000 | rgb;
+                }
+                break;
+            case COLOR_GREY_ALPHA:
+                for (int x = 0, i = 0; x < width; x++, i += 2) {
+                    int grey = row[i] & 0xFF;
+                    pixels[offset + x] = (row[i + 1] & 0xFF) << 24 | grey << 16 | grey << 8 | grey;
+                }
+                break;
+            default:
+                if (bitDepth == 8) {
+                    for (int x = 0; x < width; x++) {
+                        pixels[offset + x] = lookup[row[x] & 0xFF];
+                    }
+                    break;
+                }
+
+                // Several pixels per byte, the first one in the highest bits
+                int perByte = 8 / bitDepth;
+                int mask = (1 << bitDepth) - 1;
+                for (int x = 0; x < width; x++) {
+                    int shift = 8 - bitDepth * (x % perByte + 1);
+                    pixels[offset + x] = lookup[(row[x / perByte] >> shift) & mask];
+                }
+                break;
+        }
+    }
+
+    private int readInt(int offset) {
+        return (data[offset] & 0xFF) << 24 | (data[offset + 1] & 0xFF) << 16 | (data[offset + 2] & 0xFF) << 8 | (data[offset + 3] & 0xFF);
+    }
+}
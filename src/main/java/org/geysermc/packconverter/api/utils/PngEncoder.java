@@ -0,0 +1,374 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Encodes images as 8 bit RGBA PNGs, or RGB when every pixel is opaque
+ *
+ * Rows are filtered and compressed in blocks. Large images have their blocks compressed in parallel,
+ * each block is its own deflate stream primed with the end of the block before it, so the result is a single valid zlib stream.
+ * Blocks are read from the image as they are needed and every block is written as its own IDAT chunk.
+ */
+public class PngEncoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    // Filtered image data per block, blocks are only split between rows
+    private static final int BLOCK_SIZE = 256 * 1024;
+
+    // Images with less filtered data are encoded on a single thread
+    private static final int PARALLEL_SIZE = 1024 * 1024;
+
+    // Largest distance a deflate stream can look back
+    private static final int WINDOW_SIZE = 32 * 1024;
+
+    private static final int FILTER_NONE = 0;
+    private static final int FILTER_SUB = 1;
+    private static final int FILTER_UP = 2;
+    private static final int FILTER_AVERAGE = 3;
+    private static final int FILTER_PAETH = 4;
+
+    /**
+     * Encode an image
+     *
+     * @param img Image to encode
+     * @param preset Speed and size trade off
+     * @return The encoded PNG
+     */
+    public static byte[] encode(BufferedImage img, PngPreset preset) {
+        return encode(TiledImage.of(img), isOpaque(RasterUtils.getPixels(img)), preset);
+    }
+
+    /**
+     * Encode an image strip by strip, always as RGBA since finding out if it is opaque would take drawing it twice
+     * Only the blocks that are being compressed at the same time are kept besides the output,
+     * so the memory used doesn't grow with the size of the image
+     *
+     * @param img Image to encode
+     * @param preset Speed and size trade off
+     * @return The encoded PNG
+     */
+    public static byte[] encode(TiledImage img, PngPreset preset) {
+        return encode(img, false, preset);
+    }
+
+    private static byte[] encode(TiledImage img, boolean opaque, PngPreset preset) {
+        int width = img.getWidth();
+        int height = img.getHeight();
+
+        int pixelBytes = opaque ? 3 : 4;
+        int rowBytes = width * pixelBytes + 1;
+
+        int rowsPerBlock = Math.max(1, BLOCK_SIZE / rowBytes);
+        int blocks = (height + rowsPerBlock - 1) / rowsPerBlock;
+        boolean parallel = (long) rowBytes * height >= PARALLEL_SIZE && blocks > 1;
+
+        // Blocks are handled in waves of one block per thread, every block only needs the row above it and the end of the block before it
+        int wave = parallel ? Math.max(1, ForkJoinPool.getCommonPoolParallelism()) : 1;
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.write(SIGNATURE);
+
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            DataOutputStream headerOut = new DataOutputStream(header);
+            headerOut.writeInt(width);
+            headerOut.writeInt(height);
+            headerOut.writeByte(8);
+            headerOut.writeByte(opaque ? 2 : 6);
+            headerOut.writeByte(0);
+            headerOut.writeByte(0);
+            headerOut.writeByte(0);
+            writeChunk(out, "IHDR", header.toByteArray(), 0, header.size());
+
+            Adler32 adler = new Adler32();
+            byte[] dictionary = null;
+
+            for (int first = 0; first < blocks; first += wave) {
+                int waveStart = first;
+                int count = Math.min(wave, blocks - first);
+
+                byte[][] filtered = new byte[count][];
+                range(count, parallel).forEach(i -> {
+                    int start = (waveStart + i) * rowsPerBlock;
+                    filtered[i] = filterRows(img, pixelBytes, start, Math.min(height, start + rowsPerBlock), preset.isAdaptive());
+                });
+
+                byte[] waveDictionary = dictionary;
+                byte[][] compressed = new byte[count][];
+                range(count, parallel).forEach(i -> {
+                    byte[] previous = i == 0 ? waveDictionary : filtered[i - 1];
+                    compressed[i] = deflate(filtered[i], previous, preset.getLevel(), waveStart + i == blocks - 1);
+                });
+
+                for (int i = 0; i < count; i++) {
+                    adler.update(filtered[i]);
+
+                    ByteArrayOutputStream data = new ByteArrayOutputStream(compressed[i].length + 6);
+                    if (waveStart + i == 0) {
+                        // zlib header, the level flag is only informative
+                        data.write(0x78);
+                        data.write(zlibFlags(preset.getLevel()));
+                    }
+
+                    data.write(compressed[i]);
+
+                    if (waveStart + i == blocks - 1) {
+                        long checksum = adler.getValue();
+                        data.write((int) (checksum >>> 24));
+                        data.write((int) (checksum >>> 16));
+                        data.write((int) (checksum >>> 8));
+                        data.write((int) checksum);
+                    }
+
+                    writeChunk(out, "IDAT", data.toByteArray(), 0, data.size());
+                }
+
+                dictionary = filtered[count - 1];
+            }
+
+            writeChunk(out, "IEND", new byte[0], 0, 0);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // Only written to memory
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isOpaque(int[] pixels) {
+        int alpha = 0xFF000000;
+        for (int pixel : pixels) {
+            alpha &= pixel;
+        }
+
+        return alpha == 0xFF000000;
+    }
+
+    private static IntStream range(int blocks, boolean parallel) {
+        IntStream range = IntStream.range(0, blocks);
+        return parallel ? range.parallel() : range;
+    }
+
+    /**
+     * Filter a block of rows
+     *
+     * @return Filtered rows, each starting with its filter type
+     */
+    private static byte[] filterRows(TiledImage img, int pixelBytes, int startRow, int endRow, boolean adaptive) {
+        int width = img.getWidth();
+        int length = width * pixelBytes;
+        byte[] filtered = new byte[(endRow - startRow) * (length + 1)];
+        byte[] previous = new byte[length];
+        byte[] current = new byte[length];
+        byte[][] candidates = new byte[5][length];
+
+        // The row above the block is read along with it, the first row of the image has zeros above it
+        int readFrom = Math.max(0, startRow - 1);
+        int[] pixels = img.readRows(readFrom, endRow - readFrom);
+        if (startRow > 0) {
+            toBytes(pixels, 0, width, pixelBytes, previous);
+        }
+
+        for (int y = startRow; y < endRow; y++) {
+            toBytes(pixels, (y - readFrom) * width, width, pixelBytes, current);
+
+            int filter = FILTER_SUB;
+            if (adaptive) {
+                // Pick the filter with the smallest sum of differences, which tends to compress best
+                long best = Long.MAX_VALUE;
+                for (int candidate = FILTER_NONE; candidate <= FILTER_PAETH; candidate++) {
+                    long sum = filter(candidate, current, previous, pixelBytes, candidates[candidate]);
+                    if (sum < best) {
+                        best = sum;
+                        filter = candidate;
+                    }
+                }
+            } else {
+                filter(filter, current, previous, pixelBytes, candidates[filter]);
+            }
+
+            int offset = (y - startRow) * (length + 1);
+            filtered[offset] = (byte) filter;
+            System.arraycopy(candidates[filter], 0, filtered, offset + 1, length);
+
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return filtered;
+    }
+
+    private static void toBytes(int[] pixels, int offset, int width, int pixelBytes, byte[] row) {
+        for (int x = 0, i = 0; x < width; x++) {
+            int argb = pixels[offset + x];
+            row[i++] = (byte) (argb >> 16);
+            row[i++] = (byte) (argb >> 8);
+            row[i++] = (byte) argb;
+            if (pixelBytes == 4) {
+                row[i++] = (byte) (argb >>> 24);
+            }
+        }
+    }
+
+    /**
+     * Apply a filter to a row
+     *
+     * @return Sum of the filtered bytes as signed values
+     */
+    private static long filter(int filter, byte[] current, byte[] previous, int pixelBytes, byte[] out) {
+        int length = current.length;
+        int first = Math.min(pixelBytes, length);
+
+        // The first pixel has nothing on its left, which the filters treat as zero
+        switch (filter) {
+            case FILTER_SUB:
+                System.arraycopy(current, 0, out, 0, first);
+                for (int i = first; i < length; i++) {
+                    out[i] = (byte) (current[i] - current[i - pixelBytes]);
+                }
+                break;
+            case FILTER_UP:
+                for (int i = 0; i < length; i++) {
+                    out[i] = (byte) (current[i] - previous[i]);
+                }
+                break;
+            case FILTER_AVERAGE:
+                for (int i = 0; i < first; i++) {
+                    out[i] = (byte) (current[i] - ((previous[i] & 0xFF) >>> 1));
+                }
+                for (int i = first; i < length; i++) {
+                    out[i] = (byte) (current[i] - (((current[i - pixelBytes] & 0xFF) + (previous[i] & 0xFF)) >>> 1));
+                }
+                break;
+            case FILTER_PAETH:
+                for (int i = 0; i < first; i++) {
+                    out[i] = (byte) (current[i] - previous[i]);
+                }
+                for (int i = first; i < length; i++) {
+                    out[i] = (byte) (current[i] - paeth(current[i - pixelBytes] & 0xFF, previous[i] & 0xFF, previous[i - pixelBytes] & 0xFF));
+                }
+                break;
+            default:
+                System.arraycopy(current, 0, out, 0, length);
+                break;
+        }
+
+        long sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += Math.abs(out[i]);
+        }
+
+        return sum;
+    }
+
+    private static int paeth(int left, int up, int upLeft) {
+        int estimate = left + up - upLeft;
+        int distanceLeft = Math.abs(estimate - left);
+        int distanceUp = Math.abs(estimate - up);
+        int distanceUpLeft = Math.abs(estimate - upLeft);
+
+        if (distanceLeft <= distanceUp && distanceLeft <= distanceUpLeft) {
+            return left;
+        }
+
+        return distanceUp <= distanceUpLeft ? up : upLeft;
+    }
+
+    /**
+     * Compress a block of the image data as a raw deflate stream
+     * Blocks other than the last end on a byte boundary without closing the stream, so they can be joined
+     *
+     * @param data Filtered block
+     * @param previous Filtered block before it, or null for the first block
+     */
+    private static byte[] deflate(byte[] data, byte[] previous, int level, boolean last) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (previous != null) {
+                int dictionary = Math.min(WINDOW_SIZE, previous.length);
+                deflater.setDictionary(previous, previous.length - dictionary, dictionary);
+            }
+
+            deflater.setInput(data);
+            if (last) {
+                deflater.finish();
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 64);
+            byte[] buffer = new byte[16 * 1024];
+            while (true) {
+                int length = deflater.deflate(buffer, 0, buffer.length, last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+                out.write(buffer, 0, length);
+
+                if (last ? deflater.finished() : length < buffer.length) {
+                    break;
+                }
+            }
+
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static int zlibFlags(int level) {
+        switch (level) {
+            case Deflater.BEST_SPEED:
+                return 0x01;
+            case Deflater.BEST_COMPRESSION:
+                return 0xDA;
+            default:
+                return 0x9C;
+        }
+    }
+
+    private static void writeChunk(DataOutputStream out, String type, byte[] data, int offset, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, offset, length);
+
+        out.writeInt(length);
+        out.write(typeBytes);
+        out.write(data, offset, length);
+        out.writeInt((int) crc.getValue());
+    }
+}
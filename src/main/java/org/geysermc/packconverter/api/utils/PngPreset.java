@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import lombok.Getter;
+
+import java.util.zip.Deflater;
+
+/**
+ * Speed and size trade offs for {@link PngEncoder}
+ */
+@Getter
+public enum PngPreset {
+    /**
+     * Cheapest to encode, for previews and quick test runs
+     */
+    FAST(Deflater.BEST_SPEED, false),
+
+    /**
+     * The same level ImageIO uses with a single filter, at least as fast as ImageIO
+     */
+    DEFAULT(4, false),
+
+    /**
+     * Smallest files, for packs that are released
+     */
+    SMALLEST(Deflater.BEST_COMPRESSION, true);
+
+    // Deflate level to compress with
+    private final int level;
+
+    // If the filter is picked per row, otherwise every row uses the sub filter
+    private final boolean adaptive;
+
+    PngPreset(int level, boolean adaptive) {
+        this.level = level;
+        this.adaptive = adaptive;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+/**
+ * Quarter turns and flips that can be applied while copying pixels
+ *
+ * Rotations follow {@link ImageUtils#rotate(java.awt.image.BufferedImage, int)}, so positive angles turn counter clockwise
+ */
+public enum RasterTransform {
+    NONE(false) {
+        @Override
+        public int sourceX(int x, int y, int width, int height) {
+            return x;
+        }
+
+        @Override
+        public int sourceY(int x, int y, int width, int height) {
+            return y;
+        }
+    },
+    ROTATE_90(true) {
+        @Override
+        public int sourceX(int x, int y, int width, int height) {
+            return width - 1 - y;
+        }
+
+        @Override
+        public int sourceY(int x, int y, int width, int height) {
+            return x;
+        }
+    },
+    ROTATE_180(false) {
+        @Override
+        public int sourceX(int x, int y, int width, int height) {
+            return width - 1 - x;
+        }
+
+        @Override
+        public int sourceY(int x, int y, int width, int height) {
+            return height - 1 - y;
+        }
+    },
+    ROTATE_270(true) {
+        @Override
+        public int sourceX(int x, int y, int width, int height) {
+            return y;
+        }
+
+        @Override
+        public int sourceY(int x, int y, int width, int height) {
+            return height - 1 - x;
+        }
+    },
+    FLIP_HORIZONTAL(false) {
+        @Override
+        public int sourceX(int x, int y, int width, int height) {
+            return width - 1 - x;
+        }
+
+        @Override
+        public int sourceY(int x, int y, int width, int height) {
+            return y;
+        }
+    },
+    FLIP_VERTICAL(false) {
+        @Override
+        public int sourceX(int x, int y, int width, int height) {
+            return x;
+        }
+
+        @Override
+        public int sourceY(int x, int y, int width, int height) {
+            return height - 1 - y;
+        }
+    };
+
+    private final boolean swapsSize;
+
+    RasterTransform(boolean swapsSize) {
+        this.swapsSize = swapsSize;
+    }
+
+    /**
+     * Get the source X of a pixel in the transformed result
+     *
+     * @param x Result X
+     * @param y Result Y
+     * @param width Source width
+     * @param height Source height
+     * @return Source X
+     */
+    public abstract int sourceX(int x, int y, int width, int height);
+
+    /**
+     * Get the source Y of a pixel in the transformed result
+     *
+     * @param x Result X
+     * @param y Result Y
+     * @param width Source width
+     * @param height Source height
+     * @return Source Y
+     */
+    public abstract int sourceY(int x, int y, int width, int height);
+
+    /**
+     * Get the width of the transformed result
+     *
+     * @param width Source width
+     * @param height Source height
+     * @return Result width
+     */
+    public int resultWidth(int width, int height) {
+        return swapsSize ? height : width;
+    }
+
+    /**
+     * Get the height of the transformed result
+     *
+     * @param width Source width
+     * @param height Source height
+     * @return Result height
+     */
+    public int resultHeight(int width, int height) {
+        return swapsSize ? width : height;
+    }
+
+    /**
+     * Get the transform for a rotation
+     *
+     * @param angle Angle in degrees, must be a multiple of 90
+     * @return Transform that rotates by the angle
+     */
+    public static RasterTransform rotation(int angle) {
+        switch (((angle % 360) + 360) % 360) {
+            case 0:
+                return NONE;
+            case 90:
+                return ROTATE_90;
+            case 180:
+                return ROTATE_180;
+            case 270:
+                return ROTATE_270;
+            default:
+                throw new IllegalArgumentException("Not a quarter turn: " + angle);
+        }
+    }
+}
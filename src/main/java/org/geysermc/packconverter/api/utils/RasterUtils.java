@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+
+/**
+ * Pixel kernels that work directly on the int arrays behind {@link BufferedImage#TYPE_INT_ARGB} images
+ *
+ * Pixels are stored in row order as non premultiplied ARGB, the same as {@link BufferedImage#getRGB(int, int)}
+ */
+public class RasterUtils {
+
+    private static final long[] DIVIDE_STEPS = new long[256];
+
+    static {
+        for (int alpha = 1; alpha < 256; alpha++) {
+            DIVIDE_STEPS[alpha] = (0xFF000000L + alpha / 2) / alpha;
+        }
+    }
+
+    /**
+     * Create a new transparent ARGB image
+     *
+     * @param width Image width
+     * @param height Image height
+     * @return The new image
+     */
+    public static BufferedImage createImage(int width, int height) {
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    /**
+     * Get the array behind an image created with {@link #createImage(int, int)}
+     *
+     * @param img Image to use
+     * @return Pixels of the image, changes are written straight to the image
+     */
+    public static int[] getData(BufferedImage img) {
+        return ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Get the ARGB pixels of any image
+     * For plain ARGB images this is the array behind the image, so it must not be modified
+     *
+     * @param img Image to use
+     * @return Pixels of the image in row order
+     */
+    public static int[] getPixels(BufferedImage img) {
+        if (isPlainArgb(img)) {
+            return getData(img);
+        }
+
+        return img.getRGB(0, 0, img.getWidth(), img.getHeight(), null, 0, img.getWidth());
+    }
+
+    /**
+     * Check if the pixels of an image are exactly its int array, without any offset or padding
+     *
+     * @param img Image to check
+     * @return True if {@link #getData(BufferedImage)} can be used on the image
+     */
+    public static boolean isPlainArgb(BufferedImage img) {
+        if (img.getType() != BufferedImage.TYPE_INT_ARGB) {
+            return false;
+        }
+
+        WritableRaster raster = img.getRaster();
+        return raster.getParent() == null
+                && raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0
+                && raster.getDataBuffer().getOffset() == 0
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel
+                && ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride() == img.getWidth();
+    }
+
+    /**
+     * Scale pixels up by a whole factor, repeating every pixel
+     *
+     * @param src Pixels to read
+     * @param width Width of the pixels to read
+     * @param dst Pixels to write, factor squared times the size of the source
+     * @param factor Amount to scale by
+     */
+    public static void upscale(int[] src, int width, int[] dst, int factor) {
+        int height = src.length / width;
+        int dstWidth = width * factor;
+
+        for (int y = 0; y < height; y++) {
+            int row = y * factor * dstWidth;
+            for (int x = 0; x < width; x++) {
+                Arrays.fill(dst, row + x * factor, row + (x + 1) * factor, src[y * width + x]);
+            }
+
+            // The remaining rows of the block are the same as the first
+            for (int i = 1; i < factor; i++) {
+                System.arraycopy(dst, row, dst, row + i * dstWidth, dstWidth);
+            }
+        }
+    }
+
+    /**
+     * Scale pixels down by a whole factor, keeping the pixel at the center of every block
+     *
+     * @param src Pixels to read, the size must be a multiple of the factor
+     * @param width Width of the pixels to read
+     * @param dst Pixels to write
+     * @param factor Amount to scale down by
+     */
+    public static void downscale(int[] src, int width, int[] dst, int factor) {
+        int dstWidth = width / factor;
+        int dstHeight = src.length / width / factor;
+        int offset = factor / 2;
+
+        for (int y = 0; y < dstHeight; y++) {
+            int row = (y * factor + offset) * width + offset;
+            for (int x = 0; x < dstWidth; x++) {
+                dst[y * dstWidth + x] = src[row + x * factor];
+            }
+        }
+    }
+
+    /**
+     * Rotate or flip pixels, moving every pixel as is
+     *
+     * @param src Pixels to read
+     * @param width Width of the pixels to read
+     * @param dst Pixels to write, sized like the source but laid out with the result width of the transform
+     * @param transform Transform to apply
+     */
+    public static void transform(int[] src, int width, int[] dst, RasterTransform transform) {
+        int height = src.length / width;
+        int dstWidth = transform.resultWidth(width, height);
+        int dstHeight = transform.resultHeight(width, height);
+
+        // Every transform maps straight lines to straight lines, so the source index moves by a fixed step per column and row
+        int start = transform.sourceY(0, 0, width, height) * width + transform.sourceX(0, 0, width, height);
+        int columnStep = transform.sourceY(1, 0, width, height) * width + transform.sourceX(1, 0, width, height) - start;
+        int rowStep = transform.sourceY(0, 1, width, height) * width + transform.sourceX(0, 1, width, height) - start;
+
+        for (int y = 0; y < dstHeight; y++) {
+            int from = start + y * rowStep;
+            int to = y * dstWidth;
+            if (columnStep == 1) {
+                System.arraycopy(src, from, dst, to, dstWidth);
+                continue;
+            }
+
+            for (int x = 0; x < dstWidth; x++) {
+                dst[to + x] = src[from];
+                from += columnStep;
+            }
+        }
+    }
+
+    /**
+     * Draw a region of one view over another view
+     *
+     * @param src View to read
+     * @param srcRect Region of the view to draw, relative to the view
+     * @param dst View to draw onto
+     * @param dstPoint Target position, relative to the view to draw onto
+     * @see RasterView#blit(RasterView, int, int)
+     */
+    public static void blit(RasterView src, Rectangle srcRect, RasterView dst, Point dstPoint) {
+        src.region(srcRect.x, srcRect.y, srcRect.width, srcRect.height).blit(dst, dstPoint.x, dstPoint.y);
+    }
+
+    /**
+     * Get the grey value of a pixel, weighted the same way as {@link ImageUtils#grayscale(BufferedImage)}
+     *
+     * @param argb Pixel to use
+     * @return Grey value between 0 and 255
+     */
+    public static int grey(int argb) {
+        return Math.round(0.2126f * ((argb >> 16) & 0xFF) +
+                0.7152f * ((argb >> 8) & 0xFF) +
+                0.0722f * (argb & 0xFF));
+    }
+
+    /**
+     * Convert pixels to grayscale, keeping their alpha
+     *
+     * @param src Pixels to read
+     * @param dst Pixels to write, can be the same array
+     */
+    public static void grayscale(int[] src, int[] dst) {
+        for (int i = 0; i < src.length; i++) {
+            int argb = src[i];
+            int grey = grey(argb);
+            dst[i] = (argb & 0xFF000000) | (grey << 16) | (grey << 8) | grey;
+        }
+    }
+
+    /**
+     * Build the lookup table that maps a grey value to a tinted channel value
+     *
+     * @param channel Channel value of the tint
+     * @return Tinted value for every grey value
+     */
+    public static int[] tintTable(int channel) {
+        int[] table = new int[256];
+        for (int grey = 0; grey < 256; grey++) {
+            table[grey] = Math.round(grey / 255f * channel);
+        }
+
+        return table;
+    }
+
+    /**
+     * Convert pixels to grayscale and tint them in one pass, keeping their alpha
+     *
+     * @param src Pixels to read
+     * @param dst Pixels to write, can be the same array
+     * @param color Color to tint
+     */
+    public static void colorize(int[] src, int[] dst, Color color) {
+        int[] red = tintTable(color.getRed());
+        int[] green = tintTable(color.getGreen());
+        int[] blue = tintTable(color.getBlue());
+
+        for (int i = 0; i < src.length; i++) {
+            int argb = src[i];
+            int grey = grey(argb);
+            dst[i] = (argb & 0xFF000000) | (red[grey] << 16) | (green[grey] << 8) | blue[grey];
+        }
+    }
+
+    /**
+     * Alter the saturation of pixels, keeping their alpha
+     *
+     * @param src Pixels to read
+     * @param dst Pixels to write, can be the same array
+     * @param amount Amount to alter the saturation by
+     */
+    public static void saturate(int[] src, int[] dst, int amount) {
+        float change = amount / 100f;
+        float[] hsb = new float[3];
+
+        for (int i = 0; i < src.length; i++) {
+            int argb = src[i];
+            Color.RGBtoHSB((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, hsb);
+
+            int pixel = Color.HSBtoRGB(hsb[0], Math.max(0f, hsb[1] + change), hsb[2]);
+            dst[i] = (argb & 0xFF000000) | (pixel & 0xFFFFFF);
+        }
+    }
+
+    /**
+     * Replace every fully transparent pixel by another pixel
+     *
+     * @param src Pixels to read
+     * @param dst Pixels to write, can be the same array
+     * @param replacement Pixel to use instead of transparent ones
+     * @return True if any pixel was changed
+     */
+    public static boolean replaceTransparent(int[] src, int[] dst, int replacement) {
+        boolean changed = false;
+        for (int i = 0; i < src.length; i++) {
+            int argb = src[i];
+            int pixel = (argb & 0xFF000000) == 0 ? replacement : argb;
+            dst[i] = pixel;
+            changed |= pixel != argb;
+        }
+
+        return changed;
+    }
+
+    /**
+     * Replace pixels by the color of an overlay with a fixed alpha
+     *
+     * @param src Pixels to read
+     * @param overlay Overlay pixels, in the same layout as the source
+     * @param dst Pixels to write, can be the same array
+     * @param reverse If true pixels that are not fully transparent are replaced, otherwise pixels that are not fully opaque
+     * @param alpha Alpha of the replaced pixels
+     */
+    public static void maskOverlay(int[] src, int[] overlay, int[] dst, boolean reverse, int alpha) {
+        int replacedAlpha = alpha << 24;
+        for (int i = 0; i < src.length; i++) {
+            int argb = src[i];
+            int pixelAlpha = argb >>> 24;
+            dst[i] = (reverse ? pixelAlpha > 0 : pixelAlpha < 255) ? replacedAlpha | (overlay[i] & 0xFFFFFF) : argb;
+        }
+    }
+
+    /**
+     * Colorize layers and draw them over each other in one pass per pixel
+     * Gives the same result as {@link #colorize(int[], int[], Color)} on every layer followed by drawing them in order
+     *
+     * @param layers Pixels of each layer
+     * @param widths Width of each layer
+     * @param heights Height of each layer
+     * @param colors Color to tint each layer
+     * @param dst Pixels to draw onto
+     * @param width Width of the pixels to draw onto, layers are clipped to it
+     */
+    public static void colorizeOverlay(int[][] layers, int[] widths, int[] heights, Color[] colors, int[] dst, int width) {
+        int[][] red = new int[layers.length][];
+        int[][] green = new int[layers.length][];
+        int[][] blue = new int[layers.length][];
+        for (int l = 0; l < layers.length; l++) {
+            red[l] = tintTable(colors[l].getRed());
+            green[l] = tintTable(colors[l].getGreen());
+            blue[l] = tintTable(colors[l].getBlue());
+        }
+
+        int height = dst.length / width;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int pixel = dst[y * width + x];
+
+                for (int l = 0; l < layers.length; l++) {
+                    if (x >= widths[l] || y >= heights[l]) {
+                        continue;
+                    }
+
+                    int argb = layers[l][y * widths[l] + x];
+                    int grey = grey(argb);
+                    pixel = blend((argb & 0xFF000000) | (red[l][grey] << 16) | (green[l][grey] << 8) | blue[l][grey], pixel);
+                }
+
+                dst[y * width + x] = pixel;
+            }
+        }
+    }
+
+    /**
+     * Draw a pixel over another one
+     * Rounds the same way as drawing with {@link Graphics} onto an ARGB image does
+     *
+     * @param src Pixel to draw
+     * @param dst Pixel to draw onto
+     * @return The resulting pixel
+     */
+    public static int blend(int src, int dst) {
+        int srcA = src >>> 24;
+        if (srcA == 0) {
+            return dst;
+        }
+        if (srcA == 0xFF) {
+            return src;
+        }
+
+        int dstA = multiply(0xFF - srcA, dst >>> 24);
+        int resA = srcA + dstA;
+
+        int red = multiply(srcA, (src >> 16) & 0xFF) + multiply(dstA, (dst >> 16) & 0xFF);
+        int green = multiply(srcA, (src >> 8) & 0xFF) + multiply(dstA, (dst >> 8) & 0xFF);
+        int blue = multiply(srcA, src & 0xFF) + multiply(dstA, dst & 0xFF);
+
+        if (resA < 0xFF) {
+            red = divide(red, resA);
+            green = divide(green, resA);
+            blue = divide(blue, resA);
+        }
+
+        return (resA << 24) | (red << 16) | (green << 8) | blue;
+    }
+
+    /**
+     * Multiply two 8 bit values as fractions of 255
+     *
+     * @param a First value
+     * @param b Second value
+     * @return Rounded product between 0 and 255
+     */
+    private static int multiply(int a, int b) {
+        return (a * b * 0x010101 + 0x800000) >>> 24;
+    }
+
+    /**
+     * Divide an 8 bit value by an alpha as fractions of 255
+     *
+     * @param value Value to divide
+     * @param alpha Alpha to divide by
+     * @return Rounded quotient between 0 and 255
+     */
+    private static int divide(int value, int alpha) {
+        if (value >= alpha) {
+            return 0xFF;
+        }
+
+        return (int) ((0x800000L + value * DIVIDE_STEPS[alpha]) >>> 24);
+    }
+}
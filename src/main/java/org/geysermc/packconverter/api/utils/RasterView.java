@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import lombok.Getter;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * A rectangular view over the pixels of an ARGB image, without copying them
+ *
+ * The view may reach outside of the image, those pixels are treated as transparent
+ */
+@Getter
+public class RasterView {
+
+    private final int[] data;
+    private final int imageWidth;
+    private final int imageHeight;
+
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+
+    private RasterView(int[] data, int imageWidth, int imageHeight, int x, int y, int width, int height) {
+        this.data = data;
+        this.imageWidth = imageWidth;
+        this.imageHeight = imageHeight;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Create a view over a whole image
+     * Images that are not plain ARGB are converted first, so only plain ARGB images can be drawn onto through the view
+     *
+     * @param img Image to use
+     * @return View over the image
+     */
+    public static RasterView of(BufferedImage img) {
+        return new RasterView(RasterUtils.getPixels(img), img.getWidth(), img.getHeight(), 0, 0, img.getWidth(), img.getHeight());
+    }
+
+    /**
+     * Create a view over ARGB pixels
+     *
+     * @param data Pixels in row order
+     * @param width Width of the pixels
+     * @param height Height of the pixels
+     * @return View over the pixels
+     */
+    public static RasterView of(int[] data, int width, int height) {
+        return new RasterView(data, width, height, 0, 0, width, height);
+    }
+
+    /**
+     * Create a view over a part of this view
+     *
+     * @param x Start X, relative to this view
+     * @param y Start Y, relative to this view
+     * @param width Region width
+     * @param height Region height
+     * @return View over the region
+     */
+    public RasterView region(int x, int y, int width, int height) {
+        return new RasterView(data, imageWidth, imageHeight, this.x + x, this.y + y, width, height);
+    }
+
+    /**
+     * Get a pixel of the view
+     *
+     * @param x Pixel X, relative to this view
+     * @param y Pixel Y, relative to this view
+     * @return ARGB value of the pixel, transparent if it is outside of the image
+     */
+    public int getPixel(int x, int y) {
+        int imageX = this.x + x;
+        int imageY = this.y + y;
+        if (imageX < 0 || imageY < 0 || imageX >= imageWidth || imageY >= imageHeight) {
+            return 0;
+        }
+
+        return data[imageY * imageWidth + imageX];
+    }
+
+    /**
+     * Copy the pixels of this view into a new image sized view
+     *
+     * @return View over a copy of the pixels
+     */
+    public RasterView copy() {
+        int[] pixels = new int[width * height];
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                pixels[row * width + column] = getPixel(column, row);
+            }
+        }
+
+        return new RasterView(pixels, width, height, 0, 0, width, height);
+    }
+
+    /**
+     * Draw this view over another view, the same as drawing a cropped copy with {@link java.awt.Graphics}
+     *
+     * @param dst View to draw onto, pixels outside of it are left alone
+     * @param dstX Target X, relative to the view to draw onto
+     * @param dstY Target Y, relative to the view to draw onto
+     */
+    public void blit(RasterView dst, int dstX, int dstY) {
+        blit(dst, dstX, dstY, RasterTransform.NONE);
+    }
+
+    /**
+     * Rotate or flip this view and draw it over another view
+     *
+     * @param dst View to draw onto, pixels outside of it are left alone
+     * @param dstX Target X, relative to the view to draw onto
+     * @param dstY Target Y, relative to the view to draw onto
+     * @param transform Transform to apply while drawing
+     */
+    public void blit(RasterView dst, int dstX, int dstY, RasterTransform transform) {
+        if (data == dst.data) {
+            // Both views are over the same image, so take the pixels first in case they overlap
+            copy().blit(dst, dstX, dstY, transform);
+            return;
+        }
+
+        if (transform == RasterTransform.NONE) {
+            blitRows(dst, dstX, dstY);
+            return;
+        }
+
+        int resultWidth = transform.resultWidth(width, height);
+        int resultHeight = transform.resultHeight(width, height);
+        int targetX = dst.x + dstX;
+        int targetY = dst.y + dstY;
+
+        // Clip to the target view and the target image, the source is checked per pixel
+        int startX = Math.max(0, Math.max(-dstX, -targetX));
+        int startY = Math.max(0, Math.max(-dstY, -targetY));
+        int endX = Math.min(resultWidth, Math.min(dst.width - dstX, dst.imageWidth - targetX));
+        int endY = Math.min(resultHeight, Math.min(dst.height - dstY, dst.imageHeight - targetY));
+
+        for (int row = startY; row < endY; row++) {
+            int to = (targetY + row) * dst.imageWidth + targetX;
+            for (int column = startX; column < endX; column++) {
+                int pixel = getPixel(transform.sourceX(column, row, width, height), transform.sourceY(column, row, width, height));
+                dst.data[to + column] = RasterUtils.blend(pixel, dst.data[to + column]);
+            }
+        }
+    }
+
+    /**
+     * Draw this view over a view of another image without any transform
+     *
+     * @param dst View to draw onto
+     * @param dstX Target X, relative to the view to draw onto
+     * @param dstY Target Y, relative to the view to draw onto
+     */
+    private void blitRows(RasterView dst, int dstX, int dstY) {
+        int targetX = dst.x + dstX;
+        int targetY = dst.y + dstY;
+
+        // Clip to this image, the target view and the target image
+        int startX = max(0, -x, -dstX, -targetX);
+        int startY = max(0, -y, -dstY, -targetY);
+        int endX = min(width, imageWidth - x, dst.width - dstX, dst.imageWidth - targetX);
+        int endY = min(height, imageHeight - y, dst.height - dstY, dst.imageHeight - targetY);
+        if (startX >= endX || startY >= endY) {
+            return;
+        }
+
+        int rowLength = endX - startX;
+        int srcOffset = (y + startY) * imageWidth + x + startX;
+        int dstOffset = (targetY + startY) * dst.imageWidth + targetX + startX;
+
+        for (int row = 0; row < endY - startY; row++) {
+            int from = srcOffset + row * imageWidth;
+            int to = dstOffset + row * dst.imageWidth;
+
+            int i = 0;
+            while (i < rowLength) {
+                if ((data[from + i] >>> 24) != 0xFF) {
+                    dst.data[to + i] = RasterUtils.blend(data[from + i], dst.data[to + i]);
+                    i++;
+                    continue;
+                }
+
+                // Opaque pixels replace what is below them, so copy the whole run at once
+                int end = i + 1;
+                while (end < rowLength && (data[from + end] >>> 24) == 0xFF) {
+                    end++;
+                }
+
+                System.arraycopy(data, from + i, dst.data, to + i, end - i);
+                i = end;
+            }
+        }
+    }
+
+    private static int max(int a, int b, int c, int d) {
+        return Math.max(Math.max(a, b), Math.max(c, d));
+    }
+
+    private static int min(int a, int b, int c, int d) {
+        return Math.min(Math.min(a, b), Math.min(c, d));
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Resamples ARGB pixels to another size in two passes, first along the rows and then along the columns
+ *
+ * The weights of both axes are worked out once, so a resampler can be reused for any amount of images of the same size.
+ * Channels are averaged on their own without premultiplying, the same as the area averaging of AWT does.
+ */
+public class Resampler {
+
+    @Getter
+    private final ResampleFilter filter;
+    @Getter
+    private final int srcWidth;
+    @Getter
+    private final int srcHeight;
+    @Getter
+    private final int dstWidth;
+    @Getter
+    private final int dstHeight;
+
+    private final Weights horizontal;
+    private final Weights vertical;
+
+    /**
+     * @param filter Filter to use
+     * @param srcWidth Width of the pixels to read
+     * @param srcHeight Height of the pixels to read
+     * @param dstWidth Width of the result
+     * @param dstHeight Height of the result
+     */
+    public Resampler(ResampleFilter filter, int srcWidth, int srcHeight, int dstWidth, int dstHeight) {
+        if (srcWidth <= 0 || srcHeight <= 0 || dstWidth <= 0 || dstHeight <= 0) {
+            throw new IllegalArgumentException("Can't resample " + srcWidth + "x" + srcHeight + " to " + dstWidth + "x" + dstHeight);
+        }
+
+        this.filter = filter;
+        this.srcWidth = srcWidth;
+        this.srcHeight = srcHeight;
+        this.dstWidth = dstWidth;
+        this.dstHeight = dstHeight;
+
+        this.horizontal = new Weights(filter, srcWidth, dstWidth);
+        this.vertical = new Weights(filter, srcHeight, dstHeight);
+    }
+
+    /**
+     * Resample pixels
+     *
+     * @param src Pixels to read, sized as the source
+     * @param dst Pixels to write, sized as the result
+     */
+    public void resample(int[] src, int[] dst) {
+        if (filter == ResampleFilter.NEAREST) {
+            // Every result pixel is a single source pixel, so there is nothing to add up
+            for (int y = 0; y < dstHeight; y++) {
+                int srcRow = vertical.start[y] * srcWidth;
+                int out = y * dstWidth;
+                for (int x = 0; x < dstWidth; x++) {
+                    dst[out + x] = src[srcRow + horizontal.start[x]];
+                }
+            }
+            return;
+        }
+
+        int rowLength = dstWidth * 4;
+
+        // Channels of the rows after the first pass, in ARGB order
+        float[] rows = new float[rowLength * srcHeight];
+
+        int[] starts = horizontal.start;
+        int[] counts = horizontal.count;
+        float[] weights = horizontal.weights;
+        int taps = horizontal.taps;
+
+        for (int y = 0; y < srcHeight; y++) {
+            int srcRow = y * srcWidth;
+            int out = y * rowLength;
+            for (int x = 0; x < dstWidth; x++) {
+                float alpha = 0, red = 0, green = 0, blue = 0;
+
+                int from = srcRow + starts[x];
+                int offset = x * taps;
+                for (int i = 0; i < counts[x]; i++) {
+                    int argb = src[from + i];
+                    float weight = weights[offset + i];
+                    alpha += (argb >>> 24) * weight;
+                    red += ((argb >> 16) & 0xFF) * weight;
+                    green += ((argb >> 8) & 0xFF) * weight;
+                    blue += (argb & 0xFF) * weight;
+                }
+
+                rows[out++] = alpha;
+                rows[out++] = red;
+                rows[out++] = green;
+                rows[out++] = blue;
+            }
+        }
+
+        starts = vertical.start;
+        counts = vertical.count;
+        weights = vertical.weights;
+        taps = vertical.taps;
+
+        // Whole rows are added up at once, which the JIT can turn into vector instructions
+        float[] sum = new float[rowLength];
+        for (int y = 0; y < dstHeight; y++) {
+            Arrays.fill(sum, 0);
+
+            for (int i = 0; i < counts[y]; i++) {
+                int from = (starts[y] + i) * rowLength;
+                float weight = weights[y * taps + i];
+                for (int j = 0; j < rowLength; j++) {
+                    sum[j] += rows[from + j] * weight;
+                }
+            }
+
+            int out = y * dstWidth;
+            for (int x = 0, j = 0; x < dstWidth; x++, j += 4) {
+                dst[out + x] = (channel(sum[j]) << 24) | (channel(sum[j + 1]) << 16) | (channel(sum[j + 2]) << 8) | channel(sum[j + 3]);
+            }
+        }
+    }
+
+    private static int channel(float value) {
+        // Weights are never negative, so truncating after adding a half rounds the same as Math.round but is cheaper
+        return Math.min(0xFF, (int) (value + 0.5f));
+    }
+
+    /**
+     * Source pixels and their weights for every result pixel along one axis
+     */
+    private static class Weights {
+        private final int taps;
+        private final int[] start;
+        private final int[] count;
+        private final float[] weights;
+
+        private Weights(ResampleFilter filter, int srcSize, int dstSize) {
+            double scale = (double) srcSize / dstSize;
+
+            switch (filter) {
+                case NEAREST:
+                    taps = 1;
+                    break;
+                case BILINEAR:
+                    taps = 2;
+                    break;
+                default:
+                    // A result pixel covers at most this many partial source pixels
+                    taps = (srcSize + dstSize - 1) / dstSize + 1;
+                    break;
+            }
+
+            start = new int[dstSize];
+            count = new int[dstSize];
+            weights = new float[dstSize * taps];
+
+            for (int i = 0; i < dstSize; i++) {
+                int offset = i * taps;
+
+                switch (filter) {
+                    case NEAREST:
+                        start[i] = Math.min(srcSize - 1, (int) ((i + 0.5) * scale));
+                        count[i] = 1;
+                        weights[offset] = 1;
+                        break;
+                    case BILINEAR:
+                        double center = Math.max(0, Math.min(srcSize - 1, (i + 0.5) * scale - 0.5));
+                        int first = Math.min(srcSize - 2, (int) center);
+                        if (first < 0) {
+                            // A single pixel wide source
+                            start[i] = 0;
+                            count[i] = 1;
+                            weights[offset] = 1;
+                            break;
+                        }
+
+                        float fraction = (float) (center - first);
+                        start[i] = first;
+                        count[i] = fraction == 0 ? 1 : 2;
+                        weights[offset] = 1 - fraction;
+                        weights[offset + 1] = fraction;
+                        break;
+                    default:
+                        // Edges are kept in units of 1 / dstSize so they are exact
+                        long low = (long) i * srcSize;
+                        long high = low + srcSize;
+                        int from = (int) (low / dstSize);
+                        int to = (int) ((high + dstSize - 1) / dstSize);
+
+                        start[i] = from;
+                        count[i] = to - from;
+                        for (int s = from; s < to; s++) {
+                            long covered = Math.min(high, (long) (s + 1) * dstSize) - Math.max(low, (long) s * dstSize);
+                            weights[offset + s - from] = (float) covered / srcSize;
+                        }
+                        break;
+                }
+            }
+        }
+    }
+}
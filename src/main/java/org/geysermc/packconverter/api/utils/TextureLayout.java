@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A table of regions to copy from source textures into a new texture
+ *
+ * All positions and sizes are in units of the texture scale factor, so one layout works for every resolution.
+ * Layouts are not changed while applied, so one layout can be shared by converters running in parallel.
+ */
+public class TextureLayout {
+
+    /**
+     * Source index that reads from the texture being built
+     */
+    public static final int TARGET = -1;
+
+    private final List<Step> steps = new ArrayList<>();
+
+    /**
+     * Copy a region of the first source
+     *
+     * @see TextureLayout#copy(int, int, int, int, int, int, int, RasterTransform)
+     */
+    public TextureLayout copy(int srcX, int srcY, int width, int height, int dstX, int dstY) {
+        return copy(0, srcX, srcY, width, height, dstX, dstY, RasterTransform.NONE);
+    }
+
+    /**
+     * Copy and transform a region of the first source
+     *
+     * @see TextureLayout#copy(int, int, int, int, int, int, int, RasterTransform)
+     */
+    public TextureLayout copy(int srcX, int srcY, int width, int height, int dstX, int dstY, RasterTransform transform) {
+        return copy(0, srcX, srcY, width, height, dstX, dstY, transform);
+    }
+
+    /**
+     * Copy a region of a source
+     *
+     * @see TextureLayout#copy(int, int, int, int, int, int, int, RasterTransform)
+     */
+    public TextureLayout copy(int source, int srcX, int srcY, int width, int height, int dstX, int dstY) {
+        return copy(source, srcX, srcY, width, height, dstX, dstY, RasterTransform.NONE);
+    }
+
+    /**
+     * Copy and transform a region of a source
+     * Regions that continue the previous region in both the source and the target are merged into it
+     *
+     * @param source Index of the source to read or {@link #TARGET}
+     * @param srcX Source X
+     * @param srcY Source Y
+     * @param width Region width
+     * @param height Region height
+     * @param dstX Target X
+     * @param dstY Target Y
+     * @param transform Transform to apply while copying
+     * @return This layout
+     */
+    public TextureLayout copy(int source, int srcX, int srcY, int width, int height, int dstX, int dstY, RasterTransform transform) {
+        Step step = new Step(source, srcX, srcY, width, height, dstX, dstY, transform);
+
+        if (!steps.isEmpty()) {
+            Step merged = steps.get(steps.size() - 1).merge(step);
+            if (merged != null) {
+                steps.set(steps.size() - 1, merged);
+                return this;
+            }
+        }
+
+        steps.add(step);
+        return this;
+    }
+
+    /**
+     * Get the number of copies after merging
+     *
+     * @return Number of copies
+     */
+    public int size() {
+        return steps.size();
+    }
+
+    /**
+     * Draw the layout onto a texture
+     *
+     * @param target Texture to draw onto, must be a {@link BufferedImage#TYPE_INT_ARGB} image
+     * @param factor Scale factor of the textures
+     * @param sources Textures to read
+     */
+    public void apply(BufferedImage target, int factor, BufferedImage... sources) {
+        RasterView targetView = RasterView.of(target);
+
+        RasterView[] sourceViews = new RasterView[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            sourceViews[i] = RasterView.of(sources[i]);
+        }
+
+        for (Step step : steps) {
+            RasterView source = step.source == TARGET ? targetView : sourceViews[step.source];
+            source.region(step.srcX * factor, step.srcY * factor, step.width * factor, step.height * factor)
+                    .blit(targetView, step.dstX * factor, step.dstY * factor, step.transform);
+        }
+    }
+
+    /**
+     * Get the layout as an image that is drawn strip by strip when it is read, so the whole texture never has to exist at once
+     *
+     * @param width Width of the texture
+     * @param height Height of the texture
+     * @param factor Scale factor of the textures
+     * @param sources Textures to read, they must not change while the image is read
+     * @return Tiled image of the texture
+     */
+    public TiledImage tile(int width, int height, int factor, BufferedImage... sources) {
+        RasterView[] sourceViews = new RasterView[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            sourceViews[i] = RasterView.of(sources[i]);
+        }
+
+        return new TiledImage(width, height) {
+            @Override
+            public int[] readRows(int y, int rows) {
+                return drawRows(width, height, factor, sourceViews, y, rows, steps.size());
+            }
+        };
+    }
+
+    /**
+     * Draw some rows of the texture as they are after the first steps
+     * Reads of the texture being built draw the rows they read first, as they were before that step
+     */
+    private int[] drawRows(int width, int height, int factor, RasterView[] sources, int y, int rows, int stepCount) {
+        int[] pixels = new int[width * rows];
+        RasterView target = RasterView.of(pixels, width, rows).region(0, -y, width, height);
+
+        for (int i = 0; i < stepCount; i++) {
+            Step step = steps.get(i);
+            int regionWidth = step.width * factor;
+            int regionHeight = step.height * factor;
+            int dstX = step.dstX * factor;
+            int dstY = step.dstY * factor;
+
+            // Skip steps that don't reach these rows
+            int resultHeight = step.transform.resultHeight(regionWidth, regionHeight);
+            int fromRow = Math.max(dstY, y);
+            int toRow = Math.min(dstY + resultHeight, y + rows);
+            if (fromRow >= toRow) {
+                continue;
+            }
+
+            // Without a transform only the rows that land in this strip are needed, otherwise the whole region
+            int srcY = step.srcY * factor;
+            if (step.transform == RasterTransform.NONE) {
+                srcY += fromRow - dstY;
+                regionHeight = toRow - fromRow;
+                dstY = fromRow;
+            }
+
+            RasterView source;
+            if (step.source == TARGET) {
+                int readFrom = Math.max(srcY, 0);
+                int readTo = Math.min(srcY + regionHeight, height);
+                if (readFrom >= readTo) {
+                    continue;
+                }
+
+                if (readFrom >= y && readTo <= y + rows) {
+                    // The rows being drawn already hold the texture as it is before this step
+                    source = target;
+                } else {
+                    int[] before = drawRows(width, height, factor, sources, readFrom, readTo - readFrom, i);
+                    source = RasterView.of(before, width, readTo - readFrom).region(0, -readFrom, width, height);
+                }
+            } else {
+                source = sources[step.source];
+            }
+
+            source.region(step.srcX * factor, srcY, regionWidth, regionHeight)
+                    .blit(target, dstX, dstY, step.transform);
+        }
+
+        return pixels;
+    }
+
+    private static final class Step {
+        private final int source;
+        private final int srcX;
+        private final int srcY;
+        private final int width;
+        private final int height;
+        private final int dstX;
+        private final int dstY;
+        private final RasterTransform transform;
+
+        private Step(int source, int srcX, int srcY, int width, int height, int dstX, int dstY, RasterTransform transform) {
+            this.source = source;
+            this.srcX = srcX;
+            this.srcY = srcY;
+            this.width = width;
+            this.height = height;
+            this.dstX = dstX;
+            this.dstY = dstY;
+            this.transform = transform;
+        }
+
+        /**
+         * Merge a following step into this one
+         *
+         * @param next Step that runs right after this one
+         * @return The merged step or null if they can't be merged
+         */
+        private Step merge(Step next) {
+            // Reads from the target need to see the writes before them
+            if (source == TARGET || next.source != source || transform != RasterTransform.NONE || next.transform != RasterTransform.NONE) {
+                return null;
+            }
+
+            if (next.srcY == srcY && next.height == height && next.dstY == dstY
+                    && next.srcX == srcX + width && next.dstX == dstX + width) {
+                return new Step(source, srcX, srcY, width + next.width, height, dstX, dstY, transform);
+            }
+
+            if (next.srcX == srcX && next.width == width && next.dstX == dstX
+                    && next.srcY == srcY + height && next.dstY == dstY + height) {
+                return new Step(source, srcX, srcY, width, height + next.height, dstX, dstY, transform);
+            }
+
+            return null;
+        }
+    }
+}
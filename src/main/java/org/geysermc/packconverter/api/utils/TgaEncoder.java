@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Encodes images as 32 bit TGAs, either uncompressed or run length encoded
+ *
+ * Rows are stored bottom to top, the default TGA origin, and runs never cross a row.
+ */
+public class TgaEncoder {
+
+    private static final int HEADER_SIZE = 18;
+
+    private static final int TYPE_TRUE_COLOR = 2;
+    private static final int TYPE_TRUE_COLOR_RLE = 10;
+
+    // Longest run or literal a single packet can hold
+    private static final int MAX_PACKET = 128;
+
+    /**
+     * Encode an image
+     *
+     * @param img Image to encode
+     * @param rle If pixels are run length encoded
+     * @return The encoded TGA
+     * @throws IOException If the image is too large for a TGA
+     */
+    public static byte[] encode(BufferedImage img, boolean rle) throws IOException {
+        return encode(RasterUtils.getPixels(img), img.getWidth(), img.getHeight(), rle);
+    }
+
+    /**
+     * Encode ARGB pixels
+     *
+     * @param pixels Pixels in row order
+     * @param width Width of the pixels
+     * @param height Height of the pixels
+     * @param rle If pixels are run length encoded
+     * @return The encoded TGA
+     * @throws IOException If the image is too large for a TGA
+     */
+    public static byte[] encode(int[] pixels, int width, int height, boolean rle) throws IOException {
+        if (width > 0xFFFF || height > 0xFFFF) {
+            throw new IOException(String.format("Image of %dx%d is too large for a TGA", width, height));
+        }
+
+        // Every packet of a row can at worst add one byte
+        int maxRowSize = width * 4 + (rle ? (width + MAX_PACKET - 1) / MAX_PACKET : 0);
+        byte[] data = new byte[HEADER_SIZE + maxRowSize * height];
+
+        data[2] = (byte) (rle ? TYPE_TRUE_COLOR_RLE : TYPE_TRUE_COLOR);
+        data[12] = (byte) width;
+        data[13] = (byte) (width >>> 8);
+        data[14] = (byte) height;
+        data[15] = (byte) (height >>> 8);
+        data[16] = 32;
+        data[17] = 8; // Alpha bits
+
+        int offset = HEADER_SIZE;
+        for (int y = height - 1; y >= 0; y--) {
+            int start = y * width;
+            offset = rle ? writeRleRow(pixels, start, start + width, data, offset) : writeRow(pixels, start, start + width, data, offset);
+        }
+
+        return offset == data.length ? data : Arrays.copyOf(data, offset);
+    }
+
+    private static int writeRow(int[] pixels, int from, int to, byte[] data, int offset) {
+        for (int i = from; i < to; i++) {
+            offset = writePixel(pixels[i], data, offset);
+        }
+
+        return offset;
+    }
+
+    private static int writeRleRow(int[] pixels, int from, int to, byte[] data, int offset) {
+        int i = from;
+        while (i < to) {
+            int pixel = pixels[i];
+            int run = 1;
+            while (i + run < to && run < MAX_PACKET && pixels[i + run] == pixel) {
+                run++;
+            }
+
+            if (run > 1) {
+                data[offset++] = (byte) (0x80 | (run - 1));
+                offset = writePixel(pixel, data, offset);
+                i += run;
+                continue;
+            }
+
+            // Literal pixels up to the start of the next run
+            int end = i + 1;
+            while (end < to && end - i < MAX_PACKET && (end + 1 == to || pixels[end] != pixels[end + 1])) {
+                end++;
+            }
+
+            data[offset++] = (byte) (end - i - 1);
+            offset = writeRow(pixels, i, end, data, offset);
+            i = end;
+        }
+
+        return offset;
+    }
+
+    private static int writePixel(int pixel, byte[] data, int offset) {
+        data[offset] = (byte) pixel;
+        data[offset + 1] = (byte) (pixel >>> 8);
+        data[offset + 2] = (byte) (pixel >>> 16);
+        data[offset + 3] = (byte) (pixel >>> 24);
+        return offset + 4;
+    }
+}
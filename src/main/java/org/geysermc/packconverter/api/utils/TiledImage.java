@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import lombok.Getter;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+/**
+ * An ARGB image that is produced in strips of rows when they are needed, instead of being kept whole
+ *
+ * PNGs are written row by row, so full width strips are the tiles that can be encoded without ever holding the whole image.
+ * Cropping and tinting wrap another tiled image, so a chain of them only ever holds a strip at a time.
+ * Strips are produced independently, so different strips can be read from different threads.
+ */
+@Getter
+public abstract class TiledImage {
+
+    // Pixels in a strip, small enough to stay bounded and large enough to keep the per strip work small
+    private static final int STRIP_PIXELS = 64 * 1024;
+
+    private final int width;
+    private final int height;
+
+    protected TiledImage(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Produce a strip of rows
+     *
+     * @param y First row, must be inside the image
+     * @param rows Amount of rows, must fit inside the image
+     * @return New array with the ARGB pixels of the rows
+     */
+    public abstract int[] readRows(int y, int rows);
+
+    /**
+     * Get how many rows to read at once to stay within the strip size
+     *
+     * @return Rows per strip
+     */
+    public int getStripRows() {
+        return Math.max(1, STRIP_PIXELS / Math.max(1, width));
+    }
+
+    /**
+     * Crop the image, areas outside of it are transparent
+     *
+     * @param x Starting X
+     * @param y Starting Y
+     * @param width Final width
+     * @param height Final height
+     * @return Cropped image
+     */
+    public TiledImage crop(int x, int y, int width, int height) {
+        return new Cropped(this, x, y, width, height);
+    }
+
+    /**
+     * Convert the image to grayscale and tint it
+     *
+     * @param color Color to tint
+     * @return Tinted image
+     */
+    public TiledImage colorize(Color color) {
+        TiledImage source = this;
+        return new TiledImage(width, height) {
+            @Override
+            public int[] readRows(int y, int rows) {
+                int[] pixels = source.readRows(y, rows);
+                PixelKernels.colorize(pixels, pixels, color);
+                return pixels;
+            }
+        };
+    }
+
+    /**
+     * Produce the whole image
+     *
+     * @return New ARGB image
+     */
+    public BufferedImage toImage() {
+        BufferedImage image = RasterUtils.createImage(width, height);
+        int[] data = RasterUtils.getData(image);
+
+        int stripRows = getStripRows();
+        for (int y = 0; y < height; y += stripRows) {
+            int rows = Math.min(stripRows, height - y);
+            System.arraycopy(readRows(y, rows), 0, data, y * width, rows * width);
+        }
+
+        return image;
+    }
+
+    /**
+     * Read an image in strips
+     *
+     * @param img Image to read, it must not change while it is read
+     * @return Tiled image over the pixels
+     */
+    public static TiledImage of(BufferedImage img) {
+        if (RasterUtils.isPlainArgb(img)) {
+            int[] data = RasterUtils.getData(img);
+            return new TiledImage(img.getWidth(), img.getHeight()) {
+                @Override
+                public int[] readRows(int y, int rows) {
+                    int[] pixels = new int[rows * getWidth()];
+                    System.arraycopy(data, y * getWidth(), pixels, 0, pixels.length);
+                    return pixels;
+                }
+            };
+        }
+
+        return new TiledImage(img.getWidth(), img.getHeight()) {
+            @Override
+            public int[] readRows(int y, int rows) {
+                return img.getRGB(0, y, getWidth(), rows, null, 0, getWidth());
+            }
+        };
+    }
+
+    private static class Cropped extends TiledImage {
+        private final TiledImage source;
+        private final int x;
+        private final int y;
+
+        private Cropped(TiledImage source, int x, int y, int width, int height) {
+            super(width, height);
+            this.source = source;
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public int[] readRows(int startRow, int rows) {
+            int width = getWidth();
+            int[] pixels = new int[rows * width];
+
+            // Only the part that overlaps the source is read, the rest stays transparent
+            int fromRow = Math.max(y + startRow, 0);
+            int toRow = Math.min(y + startRow + rows, source.getHeight());
+            int fromColumn = Math.max(x, 0);
+            int toColumn = Math.min(x + width, source.getWidth());
+            if (fromRow >= toRow || fromColumn >= toColumn) {
+                return pixels;
+            }
+
+            int[] sourcePixels = source.readRows(fromRow, toRow - fromRow);
+            for (int row = fromRow; row < toRow; row++) {
+                System.arraycopy(sourcePixels, (row - fromRow) * source.getWidth() + fromColumn,
+                        pixels, (row - y - startRow) * width + fromColumn - x, toColumn - fromColumn);
+            }
+
+            return pixels;
+        }
+    }
+}
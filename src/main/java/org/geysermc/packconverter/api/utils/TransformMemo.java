@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Remembers the output of image transforms by the operation and the contents of its input,
+ * so identical textures are only transformed and encoded once
+ *
+ * Without a directory the outputs are only kept for the current conversion,
+ * with one they are stored as files and are reused by later conversions.
+ * An empty output means the transform left the input unchanged.
+ */
+public class TransformMemo {
+
+    /**
+     * Output stored for transforms that didn't change their input
+     */
+    public static final byte[] UNCHANGED = new byte[0];
+
+    // Outputs of other builds may differ, so keys include a fingerprint of the code that made them
+    private static final long BUILD = fingerprintBuild();
+
+    private static final long SECOND_SEED = 0x5A17E5EEDL;
+
+    private final Path directory;
+    private final Map<String, byte[]> outputs = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create a memo that is only kept in memory
+     */
+    public TransformMemo() {
+        this(null);
+    }
+
+    /**
+     * @param directory Folder to store the outputs in, or null to only keep them in memory
+     */
+    public TransformMemo(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Create the key of a transform
+     * The input is hashed with two seeds, so the stored outputs of many packs don't run into collisions
+     *
+     * @param operation Everything that decides the output besides the input, like the converter and its parameters
+     * @param input Contents of the input file
+     * @return The key
+     */
+    public static String key(String operation, byte[] input) {
+        long operationHash = XxHash64.hash((Long.toHexString(BUILD) + "\0" + operation).getBytes(StandardCharsets.UTF_8), 0);
+        return String.format("%016x%016x%016x", operationHash, XxHash64.hash(input, 0), XxHash64.hash(input, SECOND_SEED));
+    }
+
+    /**
+     * Get the output of an earlier transform
+     *
+     * @param key Key of the transform
+     * @return The output, {@link #UNCHANGED} or null if the transform wasn't done before
+     */
+    public byte[] get(String key) {
+        byte[] output = directory == null ? outputs.get(key) : readFile(key);
+        if (output == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+
+        return output;
+    }
+
+    /**
+     * Store the output of a transform
+     *
+     * @param key Key of the transform
+     * @param output The output, or {@link #UNCHANGED}
+     */
+    public void put(String key, byte[] output) {
+        if (directory == null) {
+            outputs.put(key, output);
+            return;
+        }
+
+        try {
+            writeFile(key, output);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private Path file(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private byte[] readFile(String key) {
+        try {
+            return Files.readAllBytes(file(key));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private void writeFile(String key, byte[] output) throws IOException {
+        Path file = file(key);
+        Files.createDirectories(file.getParent());
+
+        // Written next to the target first, so other conversions never see half a file
+        Path temp = Files.createTempFile(file.getParent(), key, ".tmp");
+        try {
+            Files.write(temp, output);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Hash the jar or the class folder this class was loaded from
+     *
+     * @return Fingerprint of the build, or a random value if the code can't be read
+     */
+    private static long fingerprintBuild() {
+        try {
+            Path code = Paths.get(TransformMemo.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            if (Files.isRegularFile(code)) {
+                return XxHash64.hash(Files.readAllBytes(code), 0);
+            }
+
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(code)) {
+                files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+
+            long hash = 0;
+            for (Path file : files) {
+                hash = XxHash64.hash(code.relativize(file).toString().getBytes(StandardCharsets.UTF_8), hash);
+                hash = XxHash64.hash(Files.readAllBytes(file), hash);
+            }
+
+            return hash;
+        } catch (Exception e) {
+            // Nothing stored can be trusted to match this code, so only this run reuses its outputs
+            return new Random().nextLong();
+        }
+    }
+}
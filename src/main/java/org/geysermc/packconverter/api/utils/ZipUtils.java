@@ -27,14 +27,19 @@
 package org.geysermc.packconverter.api.utils;
 
 import org.geysermc.packconverter.api.PackConverter;
+import org.geysermc.packconverter.api.filesystem.PackFileSystem;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
 /**
@@ -44,17 +49,17 @@ import java.util.zip.ZipOutputStream;
 public class ZipUtils {
 
     private final List <String> fileList = new ArrayList<>();
+    private final Map<String, ZipEntry> passthroughList = new LinkedHashMap<>();
     private final PackConverter packConverter;
-    private final File sourceFolder;
+    private final PackFileSystem storage;
+    private ZipFile passthroughZip;
 
-    public ZipUtils(PackConverter packConverter, File sourceFolder) {
+    public ZipUtils(PackConverter packConverter, PackFileSystem storage) {
         this.packConverter = packConverter;
-        this.sourceFolder = sourceFolder;
+        this.storage = storage;
     }
 
     public void zipIt(String zipFile) {
-        byte[] buffer = new byte[1024];
-        String source = sourceFolder.getName();
         FileOutputStream fos = null;
         ZipOutputStream zos = null;
         try {
@@ -62,21 +67,30 @@ public class ZipUtils {
             zos = new ZipOutputStream(fos);
 
             packConverter.log("Output to zip " + zipFile);
-            FileInputStream in = null;
 
+            Set<String> added = new HashSet<>();
             for (String file: this.fileList) {
                 packConverter.log("File added " + file);
                 ZipEntry ze = new ZipEntry(file);
                 zos.putNextEntry(ze);
-                try {
-                    in = new FileInputStream(sourceFolder + File.separator + file);
-                    int len;
-                    while ((len = in .read(buffer)) > 0) {
-                        zos.write(buffer, 0, len);
+                zos.write(storage.read(file));
+                added.add(file);
+            }
+
+            // Converted files replace the original ones
+            byte[] buffer = new byte[64 * 1024];
+            for (Map.Entry<String, ZipEntry> passthrough : passthroughList.entrySet()) {
+                if (!added.add(passthrough.getKey())) {
+                    continue;
+                }
+
+                packConverter.log("File added " + passthrough.getKey());
+                zos.putNextEntry(new ZipEntry(passthrough.getKey()));
+                try (InputStream inStream = passthroughZip.getInputStream(passthrough.getValue())) {
+                    int length;
+                    while ((length = inStream.read(buffer)) != -1) {
+                        zos.write(buffer, 0, length);
                     }
-                } finally {
-                    if (in != null)
-                        in.close();
                 }
             }
 
@@ -94,26 +108,22 @@ public class ZipUtils {
         }
     }
 
-    public void generateFileList() {
-        generateFileList(sourceFolder);
+    /**
+     * Add entries that are copied straight from another zip
+     *
+     * @param zipFile Zip to copy from
+     * @param entries Entries to copy, by their path in the output
+     */
+    public void addPassthrough(ZipFile zipFile, Map<String, ZipEntry> entries) {
+        this.passthroughZip = zipFile;
+        this.passthroughList.putAll(entries);
     }
 
-
-    public void generateFileList(File node) {
-        // Add file only
-        if (node.isFile()) {
-            fileList.add(generateZipEntry(node.getAbsolutePath()));
-        }
-
-        if (node.isDirectory()) {
-            String[] subNote = node.list();
-            for (String filename : subNote) {
-                generateFileList(new File(node, filename));
-            }
+    public void generateFileList() {
+        try {
+            fileList.addAll(storage.list(""));
+        } catch (IOException e) {
+            e.printStackTrace();
         }
     }
-
-    private String generateZipEntry(String file) {
-        return file.substring(sourceFolder.getAbsolutePath().length() + 1);
-    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2019-2020 GeyserMC. http://geysermc.org
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in
+ *  all copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *  THE SOFTWARE.
+ *
+ *  @author GeyserMC
+ *  @link https://github.com/GeyserMC/PackConverter
+ *
+ */
+
+package org.geysermc.packconverter.api.utils;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.awt.*;
+
+/**
+ * Vector API versions of the kernels in {@link RasterUtils}
+ *
+ * Every kernel gives exactly the same pixels as its scalar version, float math is done in the same order
+ */
+final class VectorKernels {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOATS = VectorSpecies.of(float.class, INTS.vectorShape());
+
+    private static final float MAGIC = 8388608f;
+    private static final int MAGIC_BITS = Float.floatToRawIntBits(MAGIC);
+
+    private VectorKernels() {
+    }
+
+    /**
+     * Check if the platform has vectors wider than a single pixel
+     *
+     * @return True if vectorizing is worth it
+     */
+    static boolean isSupported() {
+        return INTS.length() > 1 && INTS.length() == FLOATS.length();
+    }
+
+    static void grayscale(int[] src, int[] dst) {
+        int i = 0;
+        for (int upper = INTS.loopBound(src.length); i < upper; i += INTS.length()) {
+            IntVector argb = IntVector.fromArray(INTS, src, i);
+            IntVector grey = round(grey(argb));
+
+            argb.and(0xFF000000)
+                    .or(grey.lanewise(VectorOperators.LSHL, 16))
+                    .or(grey.lanewise(VectorOperators.LSHL, 8))
+                    .or(grey)
+                    .intoArray(dst, i);
+        }
+
+        for (; i < src.length; i++) {
+            int argb = src[i];
+            int grey = RasterUtils.grey(argb);
+            dst[i] = (argb & 0xFF000000) | (grey << 16) | (grey << 8) | grey;
+        }
+    }
+
+    static void colorize(int[] src, int[] dst, Color color) {
+        float red = color.getRed();
+        float green = color.getGreen();
+        float blue = color.getBlue();
+
+        int i = 0;
+        for (int upper = INTS.loopBound(src.length); i < upper; i += INTS.length()) {
+            IntVector argb = IntVector.fromArray(INTS, src, i);
+            FloatVector grey = toFloat(round(grey(argb))).div(255f);
+
+            argb.and(0xFF000000)
+                    .or(round(grey.mul(red)).lanewise(VectorOperators.LSHL, 16))
+                    .or(round(grey.mul(green)).lanewise(VectorOperators.LSHL, 8))
+                    .or(round(grey.mul(blue)))
+                    .intoArray(dst, i);
+        }
+
+        if (i < src.length) {
+            int[] redTable = RasterUtils.tintTable(color.getRed());
+            int[] greenTable = RasterUtils.tintTable(color.getGreen());
+            int[] blueTable = RasterUtils.tintTable(color.getBlue());
+            for (; i < src.length; i++) {
+                int argb = src[i];
+                int grey = RasterUtils.grey(argb);
+                dst[i] = (argb & 0xFF000000) | (redTable[grey] << 16) | (greenTable[grey] << 8) | blueTable[grey];
+            }
+        }
+    }
+
+    static boolean replaceTransparent(int[] src, int[] dst, int replacement) {
+        VectorMask<Integer> changed = INTS.maskAll(false);
+
+        int i = 0;
+        for (int upper = INTS.loopBound(src.length); i < upper; i += INTS.length()) {
+            IntVector argb = IntVector.fromArray(INTS, src, i);
+            VectorMask<Integer> transparent = argb.and(0xFF000000).compare(VectorOperators.EQ, 0);
+
+            argb.blend(replacement, transparent).intoArray(dst, i);
+            changed = changed.or(transparent.and(argb.compare(VectorOperators.NE, replacement)));
+        }
+
+        boolean anyChanged = changed.anyTrue();
+        for (; i < src.length; i++) {
+            int argb = src[i];
+            int pixel = (argb & 0xFF000000) == 0 ? replacement : argb;
+            dst[i] = pixel;
+            anyChanged |= pixel != argb;
+        }
+
+        return anyChanged;
+    }
+
+    static void maskOverlay(int[] src, int[] overlay, int[] dst, boolean reverse, int alpha) {
+        int replacedAlpha = alpha << 24;
+
+        int i = 0;
+        for (int upper = INTS.loopBound(src.length); i < upper; i += INTS.length()) {
+            IntVector argb = IntVector.fromArray(INTS, src, i);
+            IntVector pixelAlpha = argb.lanewise(VectorOperators.LSHR, 24);
+            VectorMask<Integer> replace = reverse ? pixelAlpha.compare(VectorOperators.GT, 0) : pixelAlpha.compare(VectorOperators.LT, 255);
+            IntVector replaced = IntVector.fromArray(INTS, overlay, i).and(0xFFFFFF).or(replacedAlpha);
+
+            argb.blend(replaced, replace).intoArray(dst, i);
+        }
+
+        for (; i < src.length; i++) {
+            int argb = src[i];
+            int pixelAlpha = argb >>> 24;
+            dst[i] = (reverse ? pixelAlpha > 0 : pixelAlpha < 255) ? replacedAlpha | (overlay[i] & 0xFFFFFF) : argb;
+        }
+    }
+
+    /**
+     * Weigh the channels of pixels the same way as {@link RasterUtils#grey(int)}, before rounding
+     */
+    private static FloatVector grey(IntVector argb) {
+        FloatVector red = toFloat(argb.lanewise(VectorOperators.LSHR, 16).and(0xFF));
+        FloatVector green = toFloat(argb.lanewise(VectorOperators.LSHR, 8).and(0xFF));
+        FloatVector blue = toFloat(argb.and(0xFF));
+
+        return red.mul(0.2126f).add(green.mul(0.7152f)).add(blue.mul(0.0722f));
+    }
+
+    /**
+     * Convert values between 0 and 2^23 to floats
+     * Lane conversions are not intrinsified on every JDK, so the value is put in the mantissa of 2^23 instead
+     */
+    private static FloatVector toFloat(IntVector values) {
+        return values.or(MAGIC_BITS).reinterpretAsFloats().sub(MAGIC);
+    }
+
+    /**
+     * Round non negative values below 2^23 the same way as {@link Math#round(float)}
+     * Adding 2^23 rounds to the nearest even integer and puts it in the mantissa, which is then corrected down to the floor
+     */
+    private static IntVector round(FloatVector values) {
+        FloatVector half = values.add(0.5f);
+        FloatVector shifted = half.add(MAGIC);
+        VectorMask<Integer> roundedUp = shifted.sub(MAGIC).compare(VectorOperators.GT, half).cast(INTS);
+
+        return shifted.reinterpretAsInts().and(0x7FFFFF).sub(1, roundedUp);
+    }
+}